@@ -0,0 +1,151 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Micro-benchmarks for the game's hot paths, reported per level size.
+// Usage: java MemoryMatrixBenchmark [name filter]
+//   e.g. java MemoryMatrixBenchmark fullGame
+public class MemoryMatrixBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 8;
+    private static final long WARMUP_NANOS = 200_000_000L;
+    private static final long MEASURE_NANOS = 500_000_000L;
+
+    private static final String[] THEMES = {"Nature", "Art & Paintings", "Space Exploration"};
+
+    private static long sink;
+
+    interface Op {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = args.length > 0 ? args[0] : "";
+        File progress = File.createTempFile("bench-progress", ".dat");
+        progress.deleteOnExit();
+
+        System.out.printf("%-34s %-20s %6s %14s %12s%n", "Benchmark", "Level", "Cards", "ns/op", "error");
+
+        for (String level : new LevelManager().getAllLevels()) {
+            int[] dims = LevelManager.getDimensions(level);
+            int cards = dims[0] * dims[1] + (dims[0] * dims[1]) % 2;
+            int pairs = cards / 2;
+
+            for (String theme : THEMES) {
+                run(filter, "generate/" + theme, level, cards, () -> sink += CardValueGenerator.generate(theme, pairs).size());
+            }
+
+            short[] layout = CardValueGenerator.layout(CardValueGenerator.generate(THEMES[0], pairs));
+            int[] script = scriptFor(layout);
+            BoardEngine engine = new BoardEngine(cards);
+            run(filter, "fullGame", level, cards, () -> sink += playScript(engine, layout, script));
+
+            int levelIndex = LevelManager.levelIndex(level);
+            int[] elapsed = {0};
+            run(filter, "computeScore", level, cards, () -> {
+                int t = elapsed[0]++ & 511;
+                sink += Scoring.basePoints(levelIndex) + Scoring.timeBonus(t) + Scoring.accuracyBonus(t & 31);
+            });
+
+            LevelManager manager = new LevelManager(progress);
+            String[] all = manager.getAllLevels();
+            for (int i = 0; i <= levelIndex; i++) manager.getUnlockedLevels().add(all[i]);
+            run(filter, "progressRoundTrip", level, cards, () -> {
+                manager.saveProgress();
+                manager.flushProgress();
+                manager.loadProgress();
+                sink += manager.getUnlockedLevels().size();
+            });
+        }
+
+        if (sink == 42) System.out.println();
+    }
+
+    // Flip order of a player with perfect memory who turns unseen cards over left to right.
+    private static int[] scriptFor(short[] layout) {
+        BoardEngine engine = new BoardEngine(layout.length);
+        engine.reset(layout, layout.length);
+        int[] seenAt = new int[layout.length / 2];
+        Arrays.fill(seenAt, -1);
+        List<Integer> flips = new ArrayList<>();
+
+        int[] known = new int[layout.length];
+        int knownCount = 0;
+        int next = 0;
+        while (!engine.isComplete()) {
+            int a;
+            int b;
+            if (knownCount > 0) {
+                b = known[--knownCount];
+                a = known[--knownCount];
+            } else {
+                a = next++;
+                b = seenAt[layout[a]];
+                if (b < 0) {
+                    seenAt[layout[a]] = a;
+                    b = next++;
+                    int partner = seenAt[layout[b]];
+                    if (layout[b] != layout[a]) {
+                        if (partner >= 0) {
+                            known[knownCount++] = partner;
+                            known[knownCount++] = b;
+                        } else {
+                            seenAt[layout[b]] = b;
+                        }
+                    }
+                }
+            }
+            engine.flip(a);
+            engine.flip(b);
+            engine.resolve();
+            flips.add(a);
+            flips.add(b);
+        }
+
+        int[] script = new int[flips.size()];
+        for (int i = 0; i < script.length; i++) script[i] = flips.get(i);
+        return script;
+    }
+
+    private static int playScript(BoardEngine engine, short[] layout, int[] script) {
+        engine.reset(layout, layout.length);
+        for (int i = 0; i < script.length; i += 2) {
+            engine.flip(script[i]);
+            engine.flip(script[i + 1]);
+            engine.resolve();
+        }
+        return engine.getAttempts() + engine.getMismatches();
+    }
+
+    private static void run(String filter, String name, String level, int cards, Op op) throws Exception {
+        if (!name.contains(filter)) return;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) measure(op, WARMUP_NANOS);
+
+        double[] results = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) results[i] = measure(op, MEASURE_NANOS);
+
+        double mean = 0;
+        for (double r : results) mean += r;
+        mean /= results.length;
+        double var = 0;
+        for (double r : results) var += (r - mean) * (r - mean);
+        double error = Math.sqrt(var / (results.length - 1));
+
+        System.out.printf("%-34s %-20s %6d %14.1f %12.1f%n", name, level, cards, mean, error);
+    }
+
+    private static double measure(Op op, long budget) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 64; i++) op.run();
+            ops += 64;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        return (double) elapsed / ops;
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Monte Carlo calibration of scoring and countdowns. Bots with limited memory and a given click
+// pace play every level through BoardEngine, in parallel on the common fork/join pool; each
+// task splits its own SplittableRandom, so a run is reproducible for a given seed.
+// Usage: java ScoreSimulator [games per bot per level] [seed]
+public class ScoreSimulator {
+
+    // Pause after every second flip before the pair is resolved (MemoryGame's match check).
+    private static final double RESOLVE_SECONDS = 0.6;
+    private static final int LEAF_GAMES = 4096;
+
+    private static final int MAX_ATTEMPTS = 2048;
+    private static final int MAX_SECONDS = 3600;
+    private static final int MAX_SCORE = 8192;
+
+    // memory: how many recently seen cards the bot still remembers; clickSeconds: mean time per flip.
+    record Bot(String name, int memory, double clickSeconds) {}
+
+    private static final Bot[] BOTS = {
+            new Bot("forgetful", 4, 1.0),
+            new Bot("casual", 8, 0.8),
+            new Bot("focused", 16, 0.6),
+            new Bot("perfect", Integer.MAX_VALUE, 0.45),
+    };
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 250_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        SplittableRandom root = new SplittableRandom(seed);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        System.out.printf("%d games per bot per level, seed %d, %d threads%n%n", games, seed, pool.getParallelism());
+        System.out.printf("%-20s %-10s | %7s %5s %5s | %6s %6s %6s %8s | %6s %6s %6s%n",
+                "Level", "Bot", "attempt", "p50", "p90", "t p50", "t p90", "t p99", "in time", "s p10", "s p50", "s p90");
+
+        String[] levels = new LevelManager().getAllLevels();
+        long start = System.nanoTime();
+        for (int li = 0; li < levels.length; li++) {
+            int[] dims = LevelManager.getDimensions(levels[li]);
+            int cards = dims[0] * dims[1] + (dims[0] * dims[1]) % 2;
+            int countdown = LevelManager.getCountdownSeconds(levels[li]);
+
+            for (Bot bot : BOTS) {
+                Stats s = pool.invoke(new Batch(bot, cards, li, 0, games, root.split()));
+                System.out.printf("%-20s %-10s | %7.1f %5d %5d | %6d %6d %6d %8s | %6d %6d %6d%n",
+                        levels[li], bot.name(),
+                        (double) s.attemptSum / s.games, percentile(s.attempts, s.games, 0.5), percentile(s.attempts, s.games, 0.9),
+                        percentile(s.seconds, s.games, 0.5), percentile(s.seconds, s.games, 0.9), percentile(s.seconds, s.games, 0.99),
+                        countdown > 0 ? String.format("%.1f%%", 100.0 * s.withinCountdown(countdown) / s.games) : "-",
+                        percentile(s.scores, s.games, 0.1), percentile(s.scores, s.games, 0.5), percentile(s.scores, s.games, 0.9));
+            }
+        }
+        System.out.printf("%nDone in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    // Value below which the given fraction of games fall.
+    private static int percentile(long[] histogram, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return i;
+        }
+        return histogram.length - 1;
+    }
+
+    static final class Stats {
+        final long[] attempts = new long[MAX_ATTEMPTS];
+        final long[] seconds = new long[MAX_SECONDS];
+        final long[] scores = new long[MAX_SCORE];
+        long games;
+        long attemptSum;
+
+        void add(int attemptCount, double elapsed, int score) {
+            games++;
+            attemptSum += attemptCount;
+            attempts[Math.min(MAX_ATTEMPTS - 1, attemptCount)]++;
+            seconds[Math.min(MAX_SECONDS - 1, (int) elapsed)]++;
+            scores[Math.max(0, Math.min(MAX_SCORE - 1, score))]++;
+        }
+
+        void merge(Stats o) {
+            games += o.games;
+            attemptSum += o.attemptSum;
+            for (int i = 0; i < MAX_ATTEMPTS; i++) attempts[i] += o.attempts[i];
+            for (int i = 0; i < MAX_SECONDS; i++) seconds[i] += o.seconds[i];
+            for (int i = 0; i < MAX_SCORE; i++) scores[i] += o.scores[i];
+        }
+
+        long withinCountdown(int countdown) {
+            long n = 0;
+            for (int i = 0; i < Math.min(countdown, MAX_SECONDS); i++) n += seconds[i];
+            return n;
+        }
+    }
+
+    // Only ever run in the fork/join pool, never serialized.
+    @SuppressWarnings("serial")
+    static final class Batch extends RecursiveTask<Stats> {
+        private final Bot bot;
+        private final int cards;
+        private final int levelIndex;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        Batch(Bot bot, int cards, int levelIndex, int from, int to, SplittableRandom random) {
+            this.bot = bot;
+            this.cards = cards;
+            this.levelIndex = levelIndex;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= LEAF_GAMES) return new Player(bot, cards, random).play(to - from, levelIndex);
+
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(bot, cards, levelIndex, from, mid, random.split());
+            left.fork();
+            Stats right = new Batch(bot, cards, levelIndex, mid, to, random).compute();
+            right.merge(left.join());
+            return right;
+        }
+    }
+
+    // One bot playing games back to back on a reused board. Cards it has seen are remembered
+    // until `memory` newer sightings push them out.
+    static final class Player {
+        private final Bot bot;
+        private final SplittableRandom random;
+        private final BoardEngine engine;
+        private final short[] layout;
+        private final int[] partner;
+        private final int[] firstOf;
+        private final long[] seenAt;
+        private final int[] unmatched;
+        private int unmatchedCount;
+        private long sightings;
+
+        Player(Bot bot, int cards, SplittableRandom random) {
+            this.bot = bot;
+            this.random = random;
+            engine = new BoardEngine(cards);
+            layout = new short[cards];
+            partner = new int[cards];
+            firstOf = new int[cards / 2];
+            seenAt = new long[cards];
+            unmatched = new int[cards];
+            for (int i = 0; i < cards; i++) layout[i] = (short) (i / 2);
+        }
+
+        Stats play(int games, int levelIndex) {
+            Stats stats = new Stats();
+            for (int g = 0; g < games; g++) {
+                double elapsed = playOne();
+                int score = Scoring.basePoints(levelIndex) + Scoring.timeBonus(elapsed)
+                        + Scoring.accuracyBonus(engine.getMismatches());
+                stats.add(engine.getAttempts(), elapsed, score);
+            }
+            return stats;
+        }
+
+        private double playOne() {
+            int n = layout.length;
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                short t = layout[i];
+                layout[i] = layout[j];
+                layout[j] = t;
+            }
+            Arrays.fill(firstOf, -1);
+            for (int i = 0; i < n; i++) {
+                int p = layout[i];
+                if (firstOf[p] < 0) {
+                    firstOf[p] = i;
+                } else {
+                    partner[i] = firstOf[p];
+                    partner[firstOf[p]] = i;
+                }
+            }
+
+            engine.reset(layout, n);
+            Arrays.fill(seenAt, 0);
+            sightings = 0;
+            unmatchedCount = n;
+            for (int i = 0; i < n; i++) unmatched[i] = i;
+
+            double elapsed = 0;
+            while (!engine.isComplete()) {
+                int a = knownPair();
+                int b;
+                if (a >= 0) {
+                    b = partner[a];
+                } else {
+                    a = pickUnknown(-1);
+                    see(a);
+                    b = remembers(partner[a]) ? partner[a] : pickUnknown(a);
+                }
+                see(b);
+                engine.flip(a);
+                engine.flip(b);
+                if (engine.resolve() == BoardEngine.MATCH) {
+                    removeUnmatched(a);
+                    removeUnmatched(b);
+                }
+                elapsed += click() + click() + RESOLVE_SECONDS;
+            }
+            return elapsed;
+        }
+
+        private double click() {
+            return bot.clickSeconds() * (0.75 + 0.5 * random.nextDouble());
+        }
+
+        private void see(int card) {
+            seenAt[card] = ++sightings;
+        }
+
+        private boolean remembers(int card) {
+            return seenAt[card] != 0 && sightings - seenAt[card] < bot.memory();
+        }
+
+        private int knownPair() {
+            for (int k = 0; k < unmatchedCount; k++) {
+                int c = unmatched[k];
+                if (remembers(c) && remembers(partner[c])) return c;
+            }
+            return -1;
+        }
+
+        // A random unmatched card the bot does not remember, or any unmatched card if it remembers them all.
+        private int pickUnknown(int exclude) {
+            for (int tries = 0; tries < 8; tries++) {
+                int c = unmatched[random.nextInt(unmatchedCount)];
+                if (c != exclude && !remembers(c)) return c;
+            }
+            int start = random.nextInt(unmatchedCount);
+            int fallback = -1;
+            for (int k = 0; k < unmatchedCount; k++) {
+                int c = unmatched[(start + k) % unmatchedCount];
+                if (c == exclude) continue;
+                if (!remembers(c)) return c;
+                if (fallback < 0) fallback = c;
+            }
+            return fallback;
+        }
+
+        private void removeUnmatched(int card) {
+            for (int k = 0; k < unmatchedCount; k++) {
+                if (unmatched[k] == card) {
+                    unmatched[k] = unmatched[--unmatchedCount];
+                    return;
+                }
+            }
+        }
+    }
+}
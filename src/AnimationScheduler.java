@@ -0,0 +1,190 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// One AnimationTimer drives every card animation, delayed game task and canvas redraw.
+// Animation and task records are pooled, and a new animation on a node replaces any running
+// animation on the same channel (scale or translate) instead of piling up next to it.
+// Must only be used from the FX thread.
+public class AnimationScheduler {
+
+    public interface FrameCallback {
+        // Return false once no further frames are needed.
+        boolean onFrame(long now);
+    }
+
+    private static final int FLIP = 0;
+    private static final int POP = 1;
+    private static final int SHAKE = 2;
+
+    private static final long FLIP_NANOS = 200_000_000L;
+    private static final long POP_NANOS = 600_000_000L;
+    private static final long SHAKE_NANOS = 600_000_000L;
+    private static final long PENDING = -1;
+
+    private static final class Anim {
+        Node node;
+        int kind;
+        long start;
+        long length;
+    }
+
+    private static final class Timed {
+        Runnable action;
+        long due;
+    }
+
+    private static final List<Anim> anims = new ArrayList<>();
+    private static final ArrayDeque<Anim> freeAnims = new ArrayDeque<>();
+    private static final List<Timed> tasks = new ArrayList<>();
+    private static final ArrayDeque<Timed> freeTasks = new ArrayDeque<>();
+    private static final List<FrameCallback> callbacks = new ArrayList<>();
+
+    private static boolean running = false;
+
+    private static final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            tick(now);
+        }
+    };
+
+    private AnimationScheduler() {}
+
+    public static void flip(Node node) {
+        start(node, FLIP, FLIP_NANOS);
+    }
+
+    public static void pop(Node node) {
+        start(node, POP, POP_NANOS);
+    }
+
+    public static void shake(Node node) {
+        start(node, SHAKE, SHAKE_NANOS);
+    }
+
+    // Stops every animation on the node and leaves it at rest.
+    public static void cancel(Node node) {
+        for (int i = anims.size() - 1; i >= 0; i--) {
+            Anim a = anims.get(i);
+            if (a.node == node) finish(i);
+        }
+    }
+
+    public static void schedule(Runnable action, long delayMillis) {
+        Timed t = freeTasks.isEmpty() ? new Timed() : freeTasks.pop();
+        t.action = action;
+        t.due = System.nanoTime() + delayMillis * 1_000_000L;
+        tasks.add(t);
+        wake();
+    }
+
+    public static void cancel(Runnable action) {
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            if (tasks.get(i).action == action) release(tasks.remove(i));
+        }
+    }
+
+    public static void requestFrames(FrameCallback callback) {
+        if (!callbacks.contains(callback)) callbacks.add(callback);
+        wake();
+    }
+
+    public static int activeAnimations() {
+        return anims.size();
+    }
+
+    private static void start(Node node, int kind, long length) {
+        boolean scale = kind != SHAKE;
+        for (int i = anims.size() - 1; i >= 0; i--) {
+            Anim a = anims.get(i);
+            if (a.node == node && (a.kind != SHAKE) == scale) finish(i);
+        }
+
+        Anim a = freeAnims.isEmpty() ? new Anim() : freeAnims.pop();
+        a.node = node;
+        a.kind = kind;
+        a.start = PENDING;
+        a.length = length;
+        anims.add(a);
+        wake();
+    }
+
+    private static void wake() {
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    private static void tick(long now) {
+        long clock = System.nanoTime();
+        for (int i = 0; i < tasks.size(); ) {
+            Timed t = tasks.get(i);
+            if (t.due <= clock) {
+                tasks.remove(i);
+                Runnable action = t.action;
+                release(t);
+                action.run();
+                i = 0;
+            } else {
+                i++;
+            }
+        }
+
+        for (int i = anims.size() - 1; i >= 0; i--) {
+            if (i >= anims.size()) continue;
+            Anim a = anims.get(i);
+            if (a.start == PENDING) a.start = now;
+            double t = (double) (now - a.start) / a.length;
+            if (t >= 1) finish(i);
+            else apply(a, t);
+        }
+
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            if (i < callbacks.size() && !callbacks.get(i).onFrame(now)) callbacks.remove(i);
+        }
+
+        if (anims.isEmpty() && tasks.isEmpty() && callbacks.isEmpty()) {
+            timer.stop();
+            running = false;
+        }
+    }
+
+    private static void apply(Anim a, double t) {
+        switch (a.kind) {
+            case FLIP -> a.node.setScaleX(t);
+            case POP -> {
+                double s = 1 + 0.2 * (t < 0.5 ? t * 2 : 2 - t * 2);
+                a.node.setScaleX(s);
+                a.node.setScaleY(s);
+            }
+            case SHAKE -> {
+                double u = t * 6;
+                int cycle = (int) u;
+                double f = u - cycle;
+                a.node.setTranslateX(10 * ((cycle & 1) == 0 ? f : 1 - f));
+            }
+        }
+    }
+
+    private static void finish(int index) {
+        Anim a = anims.remove(index);
+        if (a.kind == SHAKE) {
+            a.node.setTranslateX(0);
+        } else {
+            a.node.setScaleX(1);
+            a.node.setScaleY(1);
+        }
+        a.node = null;
+        freeAnims.push(a);
+    }
+
+    private static void release(Timed t) {
+        t.action = null;
+        freeTasks.push(t);
+    }
+}
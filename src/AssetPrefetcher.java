@@ -0,0 +1,82 @@
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decodes the faces of a board into ImageCache before the board is shown.
+public class AssetPrefetcher {
+
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger threadIds = new AtomicInteger();
+
+    private static final ExecutorService DECODERS = createExecutor();
+
+    private AssetPrefetcher() {}
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "asset-decoder-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // Faces are queued in board order, so the top rows the player sees first are decoded first.
+    public static Task<Void> prefetch(List<String> values, double decodeSize) {
+        // Faces packed into a theme atlas share one decode of the whole sheet.
+        Map<String, Double> decodes = new LinkedHashMap<>();
+        for (String v : values) {
+            if (!Card.isImage(v)) continue;
+            ThemeAtlas atlas = ThemeAtlas.forFace(v);
+            if (atlas != null) decodes.putIfAbsent(atlas.getImagePath(), atlas.sheetSize(decodeSize));
+            else decodes.putIfAbsent(v, decodeSize);
+        }
+        List<String> faces = new ArrayList<>(decodes.keySet());
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws InterruptedException {
+                List<Future<?>> pending = new ArrayList<>(faces.size());
+                for (String face : faces) {
+                    double size = decodes.get(face);
+                    pending.add(DECODERS.submit(() -> ImageCache.get(face, size)));
+                }
+
+                int done = 0;
+                updateProgress(0, Math.max(1, faces.size()));
+                try {
+                    for (int i = 0; i < pending.size(); i++) {
+                        try {
+                            pending.get(i).get();
+                        } catch (ExecutionException e) {
+                            System.err.println("Failed to prefetch image: " + faces.get(i));
+                        }
+                        updateProgress(++done, faces.size());
+                    }
+                } finally {
+                    if (isCancelled()) {
+                        for (Future<?> f : pending) f.cancel(false);
+                    }
+                }
+                return null;
+            }
+        };
+
+        Thread runner = new Thread(task, "asset-prefetch");
+        runner.setDaemon(true);
+        runner.start();
+        return task;
+    }
+}
@@ -0,0 +1,93 @@
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Offline tool that packs a theme folder into a single texture plus an index of sub-rectangles.
+// Usage: java AtlasPacker <theme folder> [cell size]
+//   e.g. java AtlasPacker src/resources/images/Nature 256
+public class AtlasPacker {
+
+    private static final int PADDING = 2;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java AtlasPacker <theme folder> [cell size]");
+            System.exit(1);
+        }
+
+        File folder = new File(args[0]);
+        int cell = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        File[] files = folder.listFiles((dir, name) -> {
+            String n = name.toLowerCase();
+            return (n.endsWith(".jpg") || n.endsWith(".png")) && !n.startsWith(ThemeAtlas.ATLAS_NAME);
+        });
+        if (files == null || files.length == 0) {
+            System.err.println("No images found in " + folder);
+            System.exit(1);
+        }
+        Arrays.sort(files);
+
+        int cols = (int) Math.ceil(Math.sqrt(files.length));
+        int rows = (files.length + cols - 1) / cols;
+        int stride = cell + PADDING * 2;
+        int width = cols * stride;
+        int height = rows * stride;
+
+        BufferedImage atlas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        File indexFile = new File(folder, ThemeAtlas.ATLAS_NAME + ".idx");
+        try (PrintWriter index = new PrintWriter(indexFile, StandardCharsets.UTF_8)) {
+            index.println("# Memory Matrix theme atlas, packed from " + files.length + " images");
+            index.println("size " + width + " " + height + " " + cell);
+
+            for (int i = 0; i < files.length; i++) {
+                BufferedImage src = ImageIO.read(files[i]);
+                if (src == null) throw new IOException("Unreadable image: " + files[i]);
+
+                double scale = Math.min((double) cell / src.getWidth(), (double) cell / src.getHeight());
+                int w = Math.max(1, (int) Math.round(src.getWidth() * scale));
+                int h = Math.max(1, (int) Math.round(src.getHeight() * scale));
+                int x = (i % cols) * stride + PADDING;
+                int y = (i / cols) * stride + PADDING;
+
+                g.drawImage(src, x, y, w, h, null);
+                index.println(files[i].getName() + " " + x + " " + y + " " + w + " " + h);
+            }
+        }
+        g.dispose();
+
+        File imageFile = new File(folder, ThemeAtlas.ATLAS_NAME + ".jpg");
+        writeJpeg(atlas, imageFile);
+
+        System.out.println("Packed " + files.length + " images into " + imageFile + " (" + width + "x" + height + ")");
+    }
+
+    private static void writeJpeg(BufferedImage img, File out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (out.exists() && !out.delete()) throw new IOException("Cannot replace " + out);
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0.92f);
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Writes a file's contents on a shared background thread. Only the newest contents are kept,
+// so bursts of writes coalesce into one, and each write goes to a temp file that is then
+// renamed over the target, so a crash mid-write never leaves a truncated file behind.
+public class AtomicFileWriter {
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "file-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path target;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+
+    public AtomicFileWriter(Path target) {
+        this.target = target;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public void write(byte[] data) {
+        if (pending.getAndSet(data) == null) WRITER.execute(this::writePending);
+    }
+
+    // Blocks until everything written so far is on disk, or the timeout passes.
+    public void flush(long timeoutMillis) {
+        try {
+            WRITER.submit(this::writePending).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Failed to flush " + target + ": " + e);
+        }
+    }
+
+    private void writePending() {
+        byte[] data = pending.getAndSet(null);
+        if (data == null) return;
+        try {
+            writeNow(target, data);
+        } catch (IOException e) {
+            System.err.println("Failed to write " + target + ": " + e.getMessage());
+        }
+    }
+
+    public static void writeNow(Path target, byte[] data) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
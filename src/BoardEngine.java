@@ -0,0 +1,167 @@
+import java.util.Arrays;
+
+// Headless rules of a Memory Matrix board, independent of JavaFX.
+// The board is an array of pair ids; revealed and matched cards are tracked in bitsets.
+// No method allocates once the engine has been sized for a board.
+public class BoardEngine {
+
+    public static final int IGNORED = 0;
+    public static final int FIRST = 1;
+    public static final int SECOND = 2;
+    public static final int MATCH = 3;
+    public static final int MISMATCH = 4;
+
+    private short[] board;
+    private long[] revealed;
+    private long[] matched;
+    private int cardCount;
+    private int first = -1;
+    private int second = -1;
+    private int attempts;
+    private int mismatches;
+    private int matchesFound;
+
+    public BoardEngine() {
+        this(16);
+    }
+
+    public BoardEngine(int capacity) {
+        board = new short[capacity];
+        revealed = new long[words(capacity)];
+        matched = new long[words(capacity)];
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    public void reset(short[] layout, int count) {
+        if (board.length < count) {
+            board = new short[count];
+            revealed = new long[words(count)];
+            matched = new long[words(count)];
+        }
+        System.arraycopy(layout, 0, board, 0, count);
+        cardCount = count;
+        Arrays.fill(revealed, 0L);
+        Arrays.fill(matched, 0L);
+        first = -1;
+        second = -1;
+        attempts = 0;
+        mismatches = 0;
+        matchesFound = 0;
+    }
+
+    // Continues a saved board: the given cards are matched and nothing is face up.
+    public void restore(short[] layout, int count, long[] matchedBits, int attempts, int mismatches) {
+        reset(layout, count);
+        int found = 0;
+        for (int i = 0; i < words(count); i++) {
+            long bits = matchedBits[i];
+            if (i == words(count) - 1 && (count & 63) != 0) bits &= (1L << count) - 1;
+            matched[i] = bits;
+            found += Long.bitCount(bits);
+        }
+
+        // Both cards of a pair must be matched; this check is the one place the engine allocates.
+        int[] perPair = new int[count / 2];
+        for (int i = 0; i < count; i++) {
+            if (isMatched(i)) perPair[board[i]]++;
+        }
+        for (int p = 0; p < perPair.length; p++) {
+            if (perPair[p] == 1) throw new IllegalArgumentException("Pair " + p + " is only half matched");
+        }
+        matchesFound = found / 2;
+        this.attempts = attempts;
+        this.mismatches = mismatches;
+    }
+
+    // Returns FIRST or SECOND when the card is turned over, IGNORED when the flip is not allowed.
+    public int flip(int index) {
+        if (index < 0 || index >= cardCount || second >= 0) return IGNORED;
+        if (isRevealed(index) || isMatched(index)) return IGNORED;
+
+        revealed[index >>> 6] |= 1L << index;
+        if (first < 0) {
+            first = index;
+            return FIRST;
+        }
+        second = index;
+        attempts++;
+        return SECOND;
+    }
+
+    // Settles the two face-up cards. Returns MATCH, MISMATCH, or IGNORED when no pair is pending.
+    public int resolve() {
+        if (second < 0) return IGNORED;
+
+        int a = first;
+        int b = second;
+        first = -1;
+        second = -1;
+        revealed[a >>> 6] &= ~(1L << a);
+        revealed[b >>> 6] &= ~(1L << b);
+
+        if (board[a] == board[b]) {
+            matched[a >>> 6] |= 1L << a;
+            matched[b >>> 6] |= 1L << b;
+            matchesFound++;
+            return MATCH;
+        }
+        mismatches++;
+        return MISMATCH;
+    }
+
+    public boolean isPending() {
+        return second >= 0;
+    }
+
+    public boolean isComplete() {
+        return matchesFound == cardCount / 2;
+    }
+
+    public boolean isRevealed(int index) {
+        return (revealed[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean isMatched(int index) {
+        return (matched[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int getPairId(int index) {
+        return board[index];
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getSecond() {
+        return second;
+    }
+
+    // 64 cards' matched flags, for snapshots.
+    public long getMatchedWord(int word) {
+        return matched[word];
+    }
+
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    public int getPairCount() {
+        return cardCount / 2;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public int getMismatches() {
+        return mismatches;
+    }
+
+    public int getMatchesFound() {
+        return matchesFound;
+    }
+}
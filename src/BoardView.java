@@ -0,0 +1,23 @@
+import javafx.scene.Node;
+
+// How a board is drawn. MemoryGame owns the rules through BoardEngine and tells the view what changed.
+public interface BoardView {
+
+    Node getNode();
+
+    // Lays out a fresh board with every card face down.
+    void show(int cols, int rows, double cardSize, String[] faces, short[] layout);
+
+    // Builds what a later show() of this size will need while the view is off-screen.
+    default void prepare(int count, double cardSize, String face) {}
+
+    void reveal(int index);
+
+    void hide(int index);
+
+    void setMatched(int index);
+
+    void pop(int index);
+
+    void shake(int index);
+}
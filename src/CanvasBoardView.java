@@ -0,0 +1,305 @@
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+// Draws the whole board onto one Canvas. Used for the largest levels, where a node per card
+// makes pulses and layout too expensive. Only cards that changed or are animating are redrawn,
+// from frames driven by the shared AnimationScheduler.
+public class CanvasBoardView implements BoardView {
+
+    private static final double GAP = 12;
+    private static final double PADDING = 20;
+    private static final double RADIUS = 12;
+    // The glow is stroked on the card edge, so half of it lies outside the card.
+    private static final double GLOW_WIDTH = 4;
+
+    private static final long FLIP_NANOS = 200_000_000L;
+    private static final long POP_NANOS = 600_000_000L;
+    private static final long SHAKE_NANOS = 600_000_000L;
+
+    // Animation start times: IDLE when not running, PENDING until the next frame picks a start time.
+    private static final long IDLE = 0;
+    private static final long PENDING = -1;
+
+    private static final Color MATCHED_BORDER = Color.web("#2e7d32");
+    private static final Color GLOW = Color.web("#D6A8FF", 0.7);
+
+    private final MemoryGame game;
+    private final StackPane holder;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final AnimationScheduler.FrameCallback frames = this::render;
+
+    private int cols;
+    private int count;
+    private double cardSize;
+    private Image backImage;
+    private String[] faces;
+    private short[] layout;
+
+    private boolean[] revealed = new boolean[0];
+    private boolean[] matched = new boolean[0];
+    private boolean[] dirty = new boolean[0];
+    private long[] flipStart = new long[0];
+    private long[] popStart = new long[0];
+    private long[] shakeStart = new long[0];
+    private Image[] faceImages = new Image[0];
+    private Rectangle2D[] faceViewports = new Rectangle2D[0];
+    // Flips, pops and shakes still running after the last frame, for Diagnostics.
+    private static int running;
+
+    public CanvasBoardView(MemoryGame game) {
+        this.game = game;
+
+        canvas = new Canvas();
+        gc = canvas.getGraphicsContext2D();
+        canvas.setOnMouseClicked(e -> {
+            int index = hitTest(e.getX(), e.getY());
+            if (index >= 0) game.onCardClicked(index);
+        });
+
+        holder = new StackPane(canvas);
+    }
+
+    @Override
+    public Node getNode() {
+        return holder;
+    }
+
+    @Override
+    public void show(int cols, int rows, double cardSize, String[] faces, short[] layout) {
+        this.cols = cols;
+        this.count = layout.length;
+        this.cardSize = cardSize;
+        this.faces = faces;
+        this.layout = layout;
+        this.backImage = CardSkins.back(cardSize);
+
+        if (revealed.length < count) {
+            revealed = new boolean[count];
+            matched = new boolean[count];
+            dirty = new boolean[count];
+            flipStart = new long[count];
+            popStart = new long[count];
+            shakeStart = new long[count];
+        }
+        if (faceImages.length < faces.length) {
+            faceImages = new Image[faces.length];
+            faceViewports = new Rectangle2D[faces.length];
+        }
+        Arrays.fill(revealed, false);
+        Arrays.fill(matched, false);
+        Arrays.fill(flipStart, IDLE);
+        Arrays.fill(popStart, IDLE);
+        Arrays.fill(shakeStart, IDLE);
+        Arrays.fill(faceImages, null);
+        Arrays.fill(faceViewports, null);
+        running = 0;
+
+        canvas.setWidth(PADDING * 2 + cols * cardSize + (cols - 1) * GAP);
+        canvas.setHeight(PADDING * 2 + rows * cardSize + (rows - 1) * GAP);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setFont(Font.font("Cambria", cardSize / 2));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+
+        for (int i = 0; i < count; i++) invalidate(i);
+    }
+
+    public static int activeAnimations() {
+        return running;
+    }
+
+    @Override
+    public void reveal(int index) {
+        if (revealed[index] || matched[index]) return;
+        revealed[index] = true;
+        loadFace(layout[index]);
+        flipStart[index] = PENDING;
+        invalidate(index);
+    }
+
+    @Override
+    public void hide(int index) {
+        if (matched[index]) return;
+        revealed[index] = false;
+        flipStart[index] = PENDING;
+        invalidate(index);
+    }
+
+    @Override
+    public void setMatched(int index) {
+        matched[index] = true;
+        invalidate(index);
+    }
+
+    @Override
+    public void pop(int index) {
+        popStart[index] = PENDING;
+        invalidate(index);
+    }
+
+    @Override
+    public void shake(int index) {
+        shakeStart[index] = PENDING;
+        invalidate(index);
+    }
+
+    private int hitTest(double x, double y) {
+        double stride = cardSize + GAP;
+        double cx = x - PADDING;
+        double cy = y - PADDING;
+        if (cx < 0 || cy < 0) return -1;
+
+        int col = (int) (cx / stride);
+        int row = (int) (cy / stride);
+        if (col >= cols || cx - col * stride > cardSize || cy - row * stride > cardSize) return -1;
+
+        int index = row * cols + col;
+        return index < count ? index : -1;
+    }
+
+    private void loadFace(int pairId) {
+        if (faceImages[pairId] != null) return;
+
+        String value = faces[pairId];
+        if (!Card.isImage(value)) return;
+        try {
+            long loadStart = System.nanoTime();
+            int decodeSize = Card.decodeSize(cardSize);
+            ThemeAtlas atlas = ThemeAtlas.forFace(value);
+            if (atlas != null) {
+                Image sheet = atlas.getImage(decodeSize);
+                faceImages[pairId] = sheet;
+                faceViewports[pairId] = atlas.viewport(value, sheet);
+            } else {
+                Image img = ImageCache.get(value, decodeSize);
+                faceImages[pairId] = img;
+                faceViewports[pairId] = new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
+            }
+            Diagnostics.recordImageLoad(System.nanoTime() - loadStart);
+        } catch (Exception e) {
+            System.err.println("Failed to load image: " + value);
+        }
+    }
+
+    private void invalidate(int index) {
+        dirty[index] = true;
+        AnimationScheduler.requestFrames(frames);
+    }
+
+    // Frame callback for AnimationScheduler; returns false once nothing is left to draw.
+    private boolean render(long now) {
+        boolean animating = false;
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            boolean active = flipStart[i] != IDLE || popStart[i] != IDLE || shakeStart[i] != IDLE;
+            if (!dirty[i] && !active) continue;
+            dirty[i] = false;
+            if (drawCard(i, now)) {
+                animating = true;
+                if (flipStart[i] != IDLE) live++;
+                if (popStart[i] != IDLE) live++;
+                if (shakeStart[i] != IDLE) live++;
+            }
+        }
+        running = live;
+        return animating;
+    }
+
+    // Returns true while the card still has an animation running.
+    private boolean drawCard(int i, long now) {
+        double x = PADDING + (i % cols) * (cardSize + GAP);
+        double y = PADDING + (i / cols) * (cardSize + GAP);
+
+        double scaleX = 1;
+        double scale = 1;
+        double dx = 0;
+
+        double flip = progress(flipStart, i, now, FLIP_NANOS);
+        if (flip >= 0) scaleX = flip;
+
+        double pop = progress(popStart, i, now, POP_NANOS);
+        if (pop >= 0) {
+            // Grow and shrink back, but keep the scaled glow inside this card's half of the gap,
+            // the area cleared below, so neighbours are left untouched.
+            double peak = Math.min(1.2, (cardSize + GAP) / (cardSize + GLOW_WIDTH)) - 1;
+            double phase = pop * 2;
+            scale = 1 + peak * (phase < 1 ? phase : 2 - phase);
+        }
+
+        double shake = progress(shakeStart, i, now, SHAKE_NANOS);
+        if (shake >= 0) {
+            double u = shake * 6;
+            int cycle = (int) u;
+            double f = u - cycle;
+            dx = (GAP / 2 - GLOW_WIDTH / 2) * ((cycle & 1) == 0 ? f : 1 - f);
+        }
+
+        gc.clearRect(x - GAP / 2, y - GAP / 2, cardSize + GAP, cardSize + GAP);
+
+        gc.save();
+        gc.translate(x + cardSize / 2 + dx, y + cardSize / 2);
+        gc.scale(scaleX * scale, scale);
+        double h = cardSize / 2;
+
+        gc.setStroke(GLOW);
+        gc.setLineWidth(GLOW_WIDTH);
+        gc.strokeRoundRect(-h, -h, cardSize, cardSize, RADIUS * 2, RADIUS * 2);
+
+        if (revealed[i] || matched[i]) {
+            drawFace(layout[i], h);
+            if (matched[i]) {
+                gc.setStroke(MATCHED_BORDER);
+                gc.setLineWidth(3);
+                gc.strokeRoundRect(-h + 1.5, -h + 1.5, cardSize - 3, cardSize - 3, RADIUS * 2, RADIUS * 2);
+            }
+        } else {
+            gc.drawImage(backImage, -h, -h, cardSize, cardSize);
+        }
+        gc.restore();
+
+        return flipStart[i] != IDLE || popStart[i] != IDLE || shakeStart[i] != IDLE;
+    }
+
+    private void drawFace(int pairId, double h) {
+        Image img = faceImages[pairId];
+        if (img == null) {
+            gc.setFill(Color.BLACK);
+            gc.fillText(Card.isImage(faces[pairId]) ? "X" : faces[pairId], 0, 0);
+            return;
+        }
+
+        Rectangle2D vp = faceViewports[pairId];
+        double box = Card.faceSize(cardSize);
+        double fit = Math.min(box / vp.getWidth(), box / vp.getHeight());
+        double w = vp.getWidth() * fit;
+        double ht = vp.getHeight() * fit;
+        gc.drawImage(img, vp.getMinX(), vp.getMinY(), vp.getWidth(), vp.getHeight(), -w / 2, -ht / 2, w, ht);
+    }
+
+    // Fraction of the animation elapsed, or -1 when it is not running. Finished animations are reset to IDLE.
+    private static double progress(long[] starts, int i, long now, long length) {
+        long start = starts[i];
+        if (start == IDLE) return -1;
+        if (start == PENDING) {
+            starts[i] = now;
+            return 0;
+        }
+        double t = (double) (now - start) / length;
+        if (t >= 1) {
+            starts[i] = IDLE;
+            return -1;
+        }
+        return t;
+    }
+}
@@ -1,59 +1,84 @@
-import javafx.animation.ScaleTransition;
-import javafx.animation.TranslateTransition;
+import javafx.scene.CacheHint;
 import javafx.scene.Cursor;
 import javafx.scene.control.Label;
-import javafx.scene.effect.ColorAdjust;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
-import java.util.Objects;
+import javafx.scene.text.Font;
 
+// Cards carry no inline style; their static look comes from style/style.css. The cursor and
+// label colour change with state, so they are set directly: a state-dependent CSS rule would
+// restyle the card's whole subtree the first time it reaches each state.
 public class Card extends StackPane {
 
+    public static final String STYLESHEET = Card.class.getResource("/style/style.css").toExternalForm();
+
+    private static final Color TEXT = Color.web("#212121");
+    private static final Color MATCHED_TEXT = Color.web("#2e7d32");
+
     private final Label frontLabel;
     private final ImageView frontImage;
-    private final Region back;
+    private final ImageView back;
     private boolean revealed = false;
     private boolean matched = false;
-    private final String value;
-    private final double cardSize;
+    private int index;
+    private String value;
+    private double cardSize;
     private final MemoryGame game;
 
-    public Card(String val, double size, MemoryGame gameRef) {
-        value = val;
-        cardSize = size;
+    public Card(int idx, String val, double size, MemoryGame gameRef) {
         game = gameRef;
 
+        getStyleClass().add("card");
         frontLabel = new Label();
-        frontLabel.setStyle("-fx-font-size: " + (cardSize / 2) + "px;");
-        frontLabel.setVisible(false);
-
         frontImage = new ImageView();
-        frontImage.setFitWidth(cardSize * 0.8);
-        frontImage.setFitHeight(cardSize * 0.8);
         frontImage.setPreserveRatio(true);
-        frontImage.setVisible(false);
+        frontImage.setEffect(CardSkins.FACE_EFFECT);
+        back = new ImageView();
 
-        back = new Region();
-        back.setStyle(
-                "-fx-background-color: linear-gradient(to bottom right, #4A90E2, #6EB1FF);" +
-                        " -fx-border-color: #1565c0;" +
-                        " -fx-border-width: 3;" +
-                        " -fx-background-radius: 12;" +
-                        " -fx-border-radius: 12;"
-        );
+        assign(idx, val, size);
 
-        setEffect(new DropShadow(10, Color.web("#D6A8FF")));
+        // Effects are shared and the rendered card is cached, so flips and pops only rescale a bitmap.
+        setEffect(CardSkins.CARD_GLOW);
+        setCache(true);
+        setCacheHint(CacheHint.SCALE);
 
         getChildren().addAll(back, frontLabel, frontImage);
+
+        addEventHandler(MouseEvent.MOUSE_CLICKED, e -> game.onCardClicked(index));
+    }
+
+    // Rebinds a pooled card to a new board slot and turns it face down.
+    public void assign(int idx, String val, double size) {
+        index = idx;
+        value = val;
+        revealed = false;
+        matched = false;
         setCursor(Cursor.HAND);
+        frontLabel.setTextFill(TEXT);
+
+        if (size != cardSize) {
+            cardSize = size;
+            frontLabel.setFont(Font.font(cardSize / 2));
+            frontImage.setFitWidth(faceSize(cardSize));
+            frontImage.setFitHeight(faceSize(cardSize));
+            back.setFitWidth(cardSize);
+            back.setFitHeight(cardSize);
+            setPrefSize(cardSize, cardSize);
+        }
 
-        addEventHandler(MouseEvent.MOUSE_CLICKED, e -> game.onCardClicked(this));
+        back.setImage(CardSkins.back(cardSize));
+        back.setVisible(true);
+        frontLabel.setVisible(false);
+        frontImage.setVisible(false);
+        frontImage.setImage(null);
+        AnimationScheduler.cancel(this);
+    }
+
+    public int getIndex() {
+        return index;
     }
 
     public String getValue() {
@@ -70,43 +95,41 @@ public class Card extends StackPane {
 
     public void setMatched(boolean m) {
         matched = m;
-        if (m) back.setStyle(
-                "-fx-background-color: #81c784;" +
-                        " -fx-border-color: #2e7d32;" +
-                        " -fx-border-width: 3;" +
-                        " -fx-background-radius: 12;" +
-                        " -fx-border-radius: 12;"
-        );
+        frontLabel.setTextFill(m ? MATCHED_TEXT : TEXT);
+        if (m) back.setImage(CardSkins.matchedBack(cardSize));
     }
 
     public void reveal() {
         if (revealed || matched) return;
 
+        showFace();
+        animateFlip();
+    }
+
+    // Turns the card face up without animating, for a recycled card bound to a revealed cell.
+    public void showFace() {
         revealed = true;
+        setCursor(Cursor.DEFAULT);
         back.setVisible(false);
 
-        if (isImage()) {
+        if (isImage(value)) {
             try {
-                Image img = new Image(Objects.requireNonNull(getClass().getResourceAsStream(value)));
-                frontImage.setImage(img);
-
-                ColorAdjust brighten = new ColorAdjust();
-                brighten.setBrightness(0.2);
-
-                DropShadow shadow = new DropShadow();
-                shadow.setRadius(10);
-                shadow.setOffsetX(4);
-                shadow.setOffsetY(4);
-                shadow.setColor(Color.rgb(0, 0, 0, 0.8));
-
-                brighten.setInput(shadow);
-                frontImage.setEffect(brighten);
-
-                frontImage.setStyle(
-                        "-fx-border-color: black;" +
-                                "-fx-border-width: 3;" +
-                                "-fx-border-radius: 12;"
-                );
+                GameEvents.ImageLoad event = new GameEvents.ImageLoad();
+                event.begin();
+                long loadStart = System.nanoTime();
+                ThemeAtlas atlas = ThemeAtlas.forFace(value);
+                if (atlas != null) {
+                    Image sheet = atlas.getImage(decodeSize(cardSize));
+                    frontImage.setImage(sheet);
+                    frontImage.setViewport(atlas.viewport(value, sheet));
+                } else {
+                    frontImage.setImage(ImageCache.get(value, decodeSize(cardSize)));
+                    frontImage.setViewport(null);
+                }
+                Diagnostics.recordImageLoad(System.nanoTime() - loadStart);
+                event.face = value;
+                event.decodeSize = decodeSize(cardSize);
+                event.finish();
 
                 frontImage.setVisible(true);
                 frontLabel.setVisible(false);
@@ -120,14 +143,13 @@ public class Card extends StackPane {
             frontLabel.setVisible(true);
             frontImage.setVisible(false);
         }
-
-        animateFlip();
     }
 
     public void hide() {
         if (matched) return;
 
         revealed = false;
+        setCursor(Cursor.HAND);
         back.setVisible(true);
         frontLabel.setVisible(false);
         frontImage.setVisible(false);
@@ -135,30 +157,27 @@ public class Card extends StackPane {
     }
 
     public void pop() {
-        ScaleTransition st = new ScaleTransition(Duration.millis(300), this);
-        st.setToX(1.2);
-        st.setToY(1.2);
-        st.setAutoReverse(true);
-        st.setCycleCount(2);
-        st.play();
+        AnimationScheduler.pop(this);
     }
 
     private void animateFlip() {
-        ScaleTransition st = new ScaleTransition(Duration.millis(200), this);
-        st.setFromX(0);
-        st.setToX(1);
-        st.play();
+        AnimationScheduler.flip(this);
+    }
+
+    public static boolean isImage(String value) {
+        return value.endsWith(".jpg") || value.endsWith(".png") || GeneratedFaceNames.isGenerated(value);
+    }
+
+    public static double faceSize(double cardSize) {
+        return cardSize * 0.8;
     }
 
-    private boolean isImage() {
-        return value.endsWith(".jpg") || value.endsWith(".png");
+    // Pixel size faces are decoded at; the ImageView scales them to faceSize.
+    public static int decodeSize(double cardSize) {
+        return ImageCache.tier(faceSize(cardSize));
     }
 
     public void shake() {
-        TranslateTransition tt = new TranslateTransition(Duration.millis(100), this);
-        tt.setByX(10);
-        tt.setAutoReverse(true);
-        tt.setCycleCount(6);
-        tt.play();
+        AnimationScheduler.shake(this);
     }
 }
@@ -0,0 +1,87 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.effect.ColorAdjust;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Card artwork and effects shared by every card. Backs are rasterized once per card size
+// (on the FX thread) instead of each card laying out and styling its own Region.
+public class CardSkins {
+
+    public static final Effect CARD_GLOW = new DropShadow(10, Color.web("#D6A8FF"));
+    public static final Effect FACE_EFFECT = createFaceEffect();
+
+    private static final String BACK_STYLE =
+            "-fx-background-color: linear-gradient(to bottom right, #4A90E2, #6EB1FF);" +
+                    " -fx-border-color: #1565c0;" +
+                    " -fx-border-width: 3;" +
+                    " -fx-background-radius: 12;" +
+                    " -fx-border-radius: 12;";
+
+    private static final String MATCHED_STYLE =
+            "-fx-background-color: #81c784;" +
+                    " -fx-border-color: #2e7d32;" +
+                    " -fx-border-width: 3;" +
+                    " -fx-background-radius: 12;" +
+                    " -fx-border-radius: 12;";
+
+    private static final Map<Double, Image> backs = new HashMap<>();
+    private static final Map<Double, Image> matchedBacks = new HashMap<>();
+    private static double renderedScale = 1;
+
+    private CardSkins() {}
+
+    private static Effect createFaceEffect() {
+        DropShadow shadow = new DropShadow();
+        shadow.setRadius(10);
+        shadow.setOffsetX(4);
+        shadow.setOffsetY(4);
+        shadow.setColor(Color.rgb(0, 0, 0, 0.8));
+
+        ColorAdjust brighten = new ColorAdjust();
+        brighten.setBrightness(0.2);
+        brighten.setInput(shadow);
+        return brighten;
+    }
+
+    public static Image back(double size) {
+        checkScale();
+        return backs.computeIfAbsent(size, s -> render(BACK_STYLE, s));
+    }
+
+    public static Image matchedBack(double size) {
+        checkScale();
+        return matchedBacks.computeIfAbsent(size, s -> render(MATCHED_STYLE, s));
+    }
+
+    // Backs are re-rendered when the window moves to a screen with another scale, so they match
+    // the decode tier ImageCache picks for the faces.
+    private static void checkScale() {
+        double scale = ImageCache.getOutputScale();
+        if (scale == renderedScale) return;
+        renderedScale = scale;
+        backs.clear();
+        matchedBacks.clear();
+    }
+
+    private static Image render(String style, double size) {
+        Region r = new Region();
+        r.setStyle(style);
+        r.setMinSize(size, size);
+        r.setPrefSize(size, size);
+        r.setMaxSize(size, size);
+        r.resize(size, size);
+
+        double scale = renderedScale;
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        params.setTransform(Transform.scale(scale, scale));
+        return r.snapshot(params, null);
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CardValueGenerator {
 
@@ -19,6 +20,45 @@ public class CardValueGenerator {
         ));
     }
 
+    // Themes whose faces are drawn by GeneratedFaces, keyed to a fixed seed so a face index
+    // always looks the same. These have no pair limit short of GeneratedFaceNames.MAX_FACES.
+    private static final Map<String, Long> GENERATED = new HashMap<>();
+
+    static {
+        GENERATED.put("Black and White Icons", 0x4D4D4249L);
+    }
+
+    // Stable theme ids for persisted data (game history, snapshots). Only ever append.
+    private static final String[] THEME_IDS = {"Nature", "Art & Paintings", "Space Exploration", "Black and White Icons"};
+
+    public static String[] getThemeNames() {
+        return THEME_IDS.clone();
+    }
+
+    public static int themeId(String theme) {
+        for (int i = 0; i < THEME_IDS.length; i++) {
+            if (THEME_IDS[i].equals(theme)) return i;
+        }
+        return -1;
+    }
+
+    public static String themeName(int id) {
+        return id >= 0 && id < THEME_IDS.length ? THEME_IDS[id] : "Unknown";
+    }
+
+    // Reads each image theme's atlas index ahead of time, so the first board does not wait on it.
+    public static void indexThemes() {
+        for (List<String> pool : THEMES.values()) {
+            if (!pool.isEmpty()) ThemeAtlas.forFace(pool.get(0));
+        }
+    }
+
+    public static int maxPairs(String theme) {
+        if (GENERATED.containsKey(theme)) return GeneratedFaceNames.MAX_FACES;
+        List<String> pool = THEMES.get(theme);
+        return pool == null ? 0 : pool.size();
+    }
+
     private static List<String> generateImageList(String folder, String prefix, int count) {
         List<String> list = new ArrayList<>();
         for (int i = 1; i <= count; i++) {
@@ -28,6 +68,35 @@ public class CardValueGenerator {
     }
 
     public static List<String> generate(String theme, int pairsNeeded) {
+        return generate(theme, pairsNeeded, newSeed());
+    }
+
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    // The same theme, pair count and seed always give the same board, which is what replays rely on.
+    public static List<String> generate(String theme, int pairsNeeded, long seed) {
+        return generate(theme, pairsNeeded, seed, null);
+    }
+
+    // For a board generated ahead of its level; a null level is taken from the game context.
+    public static List<String> generate(String theme, int pairsNeeded, long seed, String level) {
+        GameEvents.Generate event = new GameEvents.Generate();
+        event.begin();
+        List<String> values = generate(theme, pairsNeeded, new SplittableRandom(seed));
+        event.level = level;
+        event.theme = theme;
+        event.cardCount = values.size();
+        event.seed = seed;
+        event.finish();
+        return values;
+    }
+
+    private static List<String> generate(String theme, int pairsNeeded, SplittableRandom random) {
+        Long faceSeed = GENERATED.get(theme);
+        if (faceSeed != null) return generateFaces(faceSeed, pairsNeeded, random);
+
         List<String> pool = THEMES.get(theme);
 
         if (pool == null) {
@@ -38,20 +107,65 @@ public class CardValueGenerator {
             throw new IllegalArgumentException("Not enough unique cards for theme: " + theme);
         }
 
-        List<String> shuffledPool = new ArrayList<>(pool);
-        Collections.shuffle(shuffledPool);
-
-        List<String> result = new ArrayList<>();
+        // Partial Fisher-Yates: only the first pairsNeeded slots of the pool need to be random.
+        String[] shuffledPool = pool.toArray(new String[0]);
+        for (int i = 0; i < pairsNeeded; i++) {
+            swap(shuffledPool, i, i + random.nextInt(shuffledPool.length - i));
+        }
 
+        String[] result = new String[pairsNeeded * 2];
         for (int i = 0; i < pairsNeeded; i++) {
-            String val = shuffledPool.get(i);
-            result.add(val);
-            result.add(val);
+            result[2 * i] = shuffledPool[i];
+            result[2 * i + 1] = shuffledPool[i];
         }
 
-        Collections.shuffle(result);
-        return result;
+        shuffle(result, random);
+        return Arrays.asList(result);
     }
-}
 
+    // Picks distinct face indices at random, so boards differ while each index stays stable.
+    private static List<String> generateFaces(long faceSeed, int pairsNeeded, SplittableRandom random) {
+        if (pairsNeeded > GeneratedFaceNames.MAX_FACES) {
+            throw new IllegalArgumentException("Not enough unique cards for " + pairsNeeded + " pairs");
+        }
+
+        Set<Integer> picked = new LinkedHashSet<>();
+        while (picked.size() < pairsNeeded) {
+            picked.add(random.nextInt(GeneratedFaceNames.MAX_FACES));
+        }
 
+        String[] result = new String[pairsNeeded * 2];
+        int i = 0;
+        for (int index : picked) {
+            String val = GeneratedFaceNames.face(faceSeed, index);
+            result[i++] = val;
+            result[i++] = val;
+        }
+
+        shuffle(result, random);
+        return Arrays.asList(result);
+    }
+
+    private static void shuffle(String[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            swap(values, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static void swap(String[] values, int i, int j) {
+        String t = values[i];
+        values[i] = values[j];
+        values[j] = t;
+    }
+
+    // Pair ids in order of first appearance, the board BoardEngine plays on.
+    public static short[] layout(List<String> values) {
+        Map<String, Integer> ids = new HashMap<>();
+        short[] layout = new short[values.size()];
+        for (int i = 0; i < layout.length; i++) {
+            Integer id = ids.putIfAbsent(values.get(i), ids.size());
+            layout[i] = (short) (id == null ? ids.size() - 1 : id);
+        }
+        return layout;
+    }
+}
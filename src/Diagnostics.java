@@ -0,0 +1,227 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Frame pacing, input latency and CSS/layout pass measurements for the diagnostics overlay.
+// Samples go into fixed 0.1 ms histograms, so recording never allocates. Each game is one
+// session; finished sessions are kept as summary rows that can be exported to CSV.
+// Must only be used from the FX thread.
+public class Diagnostics {
+
+    private static final int BUCKETS = 2500;
+    private static final long BUCKET_NANOS = 100_000L;
+    private static final String CSV_HEADER = "level,theme,renderer,frames,avg_fps,frame_p50_ms,frame_p99_ms,frame_max_ms,"
+            + "clicks,click_p50_ms,click_p99_ms,click_max_ms,image_loads,image_load_total_ms,peak_animations,"
+            + "board_css_ms,css_pass_p50_ms,css_pass_p99_ms,css_pass_max_ms";
+
+    private static boolean enabled = false;
+    // -Dmemorymatrix.diagnostics=true also logs startup timings to stdout.
+    public static final boolean LOG_STARTUP = Boolean.getBoolean("memorymatrix.diagnostics");
+
+    private static final int[] frameHist = new int[BUCKETS + 1];
+    private static long frameCount;
+    private static long frameTotalNanos;
+    private static long frameMaxNanos;
+    private static long lastFrame;
+
+    private static long fpsWindowStart;
+    private static int fpsWindowFrames;
+    private static double fps;
+
+    private static final int[] clickHist = new int[BUCKETS + 1];
+    private static long clickCount;
+    private static long clickMaxNanos;
+    private static long pendingClick;
+
+    // Time from the pre-layout to the post-layout pulse listener: the scene's CSS and layout passes.
+    private static final int[] cssHist = new int[BUCKETS + 1];
+    private static long cssCount;
+    private static long cssMaxNanos;
+    private static long pulseStart;
+    private static long boardCssNanos;
+
+    private static long imageLoads;
+    private static long imageLoadNanos;
+    private static int peakAnimations;
+
+    private static String level = "";
+    private static String theme = "";
+    private static String renderer = "";
+    private static final List<String> rows = new ArrayList<>();
+
+    private Diagnostics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+        lastFrame = 0;
+        pendingClick = 0;
+        pulseStart = 0;
+        fpsWindowStart = 0;
+    }
+
+    public static void startSession(String level, String theme, String renderer) {
+        finishSession();
+        Diagnostics.level = level;
+        Diagnostics.theme = theme;
+        Diagnostics.renderer = renderer;
+
+        Arrays.fill(frameHist, 0);
+        Arrays.fill(clickHist, 0);
+        Arrays.fill(cssHist, 0);
+        frameCount = frameTotalNanos = frameMaxNanos = lastFrame = 0;
+        clickCount = clickMaxNanos = pendingClick = 0;
+        cssCount = cssMaxNanos = pulseStart = boardCssNanos = 0;
+        imageLoads = imageLoadNanos = 0;
+        peakAnimations = 0;
+        fps = 0;
+        fpsWindowStart = 0;
+    }
+
+    public static void finishSession() {
+        if (frameCount == 0 && clickCount == 0 && cssCount == 0) return;
+
+        rows.add(String.format(Locale.ROOT, "\"%s\",\"%s\",%s,%d,%.1f,%.2f,%.2f,%.2f,%d,%.2f,%.2f,%.2f,%d,%.2f,%d,%.2f,%.2f,%.2f,%.2f",
+                level, theme, renderer,
+                frameCount, frameCount == 0 ? 0 : frameCount * 1e9 / frameTotalNanos,
+                percentile(frameHist, frameCount, 0.50), percentile(frameHist, frameCount, 0.99), frameMaxNanos / 1e6,
+                clickCount, percentile(clickHist, clickCount, 0.50), percentile(clickHist, clickCount, 0.99), clickMaxNanos / 1e6,
+                imageLoads, imageLoadNanos / 1e6, peakAnimations,
+                boardCssNanos / 1e6, percentile(cssHist, cssCount, 0.50), percentile(cssHist, cssCount, 0.99), cssMaxNanos / 1e6));
+        frameCount = 0;
+        clickCount = 0;
+    }
+
+    public static void frame(long now) {
+        if (!enabled) return;
+
+        if (lastFrame != 0) {
+            long dt = now - lastFrame;
+            frameHist[bucket(dt)]++;
+            frameCount++;
+            frameTotalNanos += dt;
+            frameMaxNanos = Math.max(frameMaxNanos, dt);
+        }
+        lastFrame = now;
+
+        if (fpsWindowStart == 0) fpsWindowStart = now;
+        fpsWindowFrames++;
+        if (now - fpsWindowStart >= 1_000_000_000L) {
+            fps = fpsWindowFrames * 1e9 / (now - fpsWindowStart);
+            fpsWindowStart = now;
+            fpsWindowFrames = 0;
+        }
+
+        peakAnimations = Math.max(peakAnimations, liveAnimations());
+    }
+
+    // Called for a click that turned a card over, with the time the click arrived; the latency ends at the next pulse.
+    public static void inputReceived(long clickNanos) {
+        if (enabled && pendingClick == 0) pendingClick = clickNanos;
+    }
+
+    public static void pulseStarted() {
+        if (enabled) pulseStart = System.nanoTime();
+    }
+
+    public static void pulseFinished() {
+        if (pulseStart != 0) {
+            long pass = System.nanoTime() - pulseStart;
+            pulseStart = 0;
+            cssHist[bucket(pass)]++;
+            cssCount++;
+            cssMaxNanos = Math.max(cssMaxNanos, pass);
+        }
+
+        if (pendingClick == 0) return;
+        long latency = System.nanoTime() - pendingClick;
+        pendingClick = 0;
+        clickHist[bucket(latency)]++;
+        clickCount++;
+        clickMaxNanos = Math.max(clickMaxNanos, latency);
+    }
+
+    // Styling a freshly built board, measured by forcing the CSS pass before its first pulse.
+    public static void recordBoardCss(long nanos) {
+        boardCssNanos = nanos;
+    }
+
+    public static void recordImageLoad(long nanos) {
+        imageLoads++;
+        imageLoadNanos += nanos;
+    }
+
+    // Node animations run on AnimationScheduler; the canvas board animates its cards itself.
+    private static int liveAnimations() {
+        return AnimationScheduler.activeAnimations() + CanvasBoardView.activeAnimations();
+    }
+
+    private static int bucket(long nanos) {
+        return (int) Math.min(BUCKETS, nanos / BUCKET_NANOS);
+    }
+
+    // Percentile in milliseconds, at 0.1 ms resolution.
+    private static double percentile(int[] hist, long count, double p) {
+        if (count == 0) return 0;
+        long target = (long) Math.ceil(count * p);
+        long seen = 0;
+        for (int i = 0; i < hist.length; i++) {
+            seen += hist[i];
+            if (seen >= target) return (i + 1) * BUCKET_NANOS / 1e6;
+        }
+        return BUCKETS * BUCKET_NANOS / 1e6;
+    }
+
+    // Frame count per 1 ms bucket, for the overlay's histogram.
+    public static void frameHistogram(int[] out) {
+        Arrays.fill(out, 0);
+        for (int i = 0; i < BUCKETS; i++) {
+            int ms = (int) (i * BUCKET_NANOS / 1_000_000L);
+            if (ms < out.length) out[ms] += frameHist[i];
+            else out[out.length - 1] += frameHist[i];
+        }
+        out[out.length - 1] += frameHist[BUCKETS];
+    }
+
+    public static String summary() {
+        return String.format(
+                "FPS: %.0f%nFrame p50/p99/max: %.1f / %.1f / %.1f ms%nClick→frame p50/p99/max: %.1f / %.1f / %.1f ms%n"
+                        + "CSS+layout p50/p99/max: %.1f / %.1f / %.1f ms (board %.1f ms)%n"
+                        + "Image loads: %d (%.1f ms)%nLive animations: %d",
+                fps,
+                percentile(frameHist, frameCount, 0.50), percentile(frameHist, frameCount, 0.99), frameMaxNanos / 1e6,
+                percentile(clickHist, clickCount, 0.50), percentile(clickHist, clickCount, 0.99), clickMaxNanos / 1e6,
+                percentile(cssHist, cssCount, 0.50), percentile(cssHist, cssCount, 0.99), cssMaxNanos / 1e6, boardCssNanos / 1e6,
+                imageLoads, imageLoadNanos / 1e6, liveAnimations());
+    }
+
+    // Writes every finished session to diagnostics-<timestamp>.csv; returns null when there is nothing to write.
+    public static Path exportCsv() {
+        finishSession();
+        if (rows.isEmpty()) return null;
+
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = Paths.get("diagnostics-" + stamp + ".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println(CSV_HEADER);
+            for (String row : rows) out.println(row);
+        } catch (IOException e) {
+            System.err.println("Failed to export diagnostics: " + e.getMessage());
+            return null;
+        }
+        rows.clear();
+        return file;
+    }
+}
@@ -0,0 +1,100 @@
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+// Toggleable (F3) panel on the game scene showing Diagnostics: FPS, a frame-time histogram,
+// click-to-frame latency, the CSS/layout pass, image load time and live animations.
+public class DiagnosticsOverlay {
+
+    private static final int HISTOGRAM_MS = 50;
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final VBox panel;
+    private final Label text;
+    private final Canvas histogram;
+    private final int[] buckets = new int[HISTOGRAM_MS + 1];
+    private final AnimationScheduler.FrameCallback frames = this::onFrame;
+    private final Runnable preLayoutListener = Diagnostics::pulseStarted;
+    private final Runnable pulseListener = Diagnostics::pulseFinished;
+    private long lastRefresh;
+    private Scene scene;
+
+    public DiagnosticsOverlay() {
+        text = new Label();
+        text.setFont(Font.font("Consolas", 12));
+        text.setTextFill(Color.WHITE);
+
+        histogram = new Canvas(HISTOGRAM_MS * 4 + 4, 60);
+
+        panel = new VBox(6, text, histogram);
+        panel.setPadding(new Insets(8));
+        panel.setMaxSize(VBox.USE_PREF_SIZE, VBox.USE_PREF_SIZE);
+        panel.setStyle("-fx-background-color: rgba(0, 0, 0, 0.7); -fx-background-radius: 6;");
+        panel.setMouseTransparent(true);
+        panel.setVisible(false);
+        StackPane.setAlignment(panel, Pos.TOP_RIGHT);
+        StackPane.setMargin(panel, new Insets(60, 12, 0, 0));
+    }
+
+    public Node getNode() {
+        return panel;
+    }
+
+    public void install(Scene scene) {
+        this.scene = scene;
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3) setShowing(!panel.isVisible());
+        });
+    }
+
+    public void setShowing(boolean show) {
+        panel.setVisible(show);
+        Diagnostics.setEnabled(show);
+        if (show) {
+            scene.addPreLayoutPulseListener(preLayoutListener);
+            scene.addPostLayoutPulseListener(pulseListener);
+            AnimationScheduler.requestFrames(frames);
+        } else {
+            scene.removePreLayoutPulseListener(preLayoutListener);
+            scene.removePostLayoutPulseListener(pulseListener);
+        }
+    }
+
+    private boolean onFrame(long now) {
+        if (!panel.isVisible()) return false;
+
+        Diagnostics.frame(now);
+        if (now - lastRefresh >= REFRESH_NANOS) {
+            lastRefresh = now;
+            text.setText(Diagnostics.summary());
+            drawHistogram();
+        }
+        return true;
+    }
+
+    private void drawHistogram() {
+        Diagnostics.frameHistogram(buckets);
+        int max = 1;
+        for (int b : buckets) max = Math.max(max, b);
+
+        GraphicsContext gc = histogram.getGraphicsContext2D();
+        double h = histogram.getHeight();
+        gc.clearRect(0, 0, histogram.getWidth(), h);
+        for (int i = 0; i < buckets.length; i++) {
+            // Green within a 60 Hz frame budget, orange up to 30 Hz, red beyond.
+            gc.setFill(i < 17 ? Color.LIMEGREEN : i < 34 ? Color.ORANGE : Color.RED);
+            double bar = h * buckets[i] / max;
+            gc.fillRect(2 + i * 4, h - bar, 3, bar);
+        }
+    }
+}
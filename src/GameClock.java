@@ -0,0 +1,71 @@
+// Monotonic game clock based on System.nanoTime. Time only accumulates while running,
+// so pauses (dialogs, a minimized window) are not counted and stalled frames cause no drift.
+public class GameClock {
+
+    private long accumulated;
+    private long resumedAt;
+    private boolean running;
+    private double rate = 1;
+
+    public void reset() {
+        accumulated = 0;
+        running = false;
+    }
+
+    public void start() {
+        reset();
+        resume();
+    }
+
+    public void pause() {
+        if (!running) return;
+        accumulated += scaled(System.nanoTime() - resumedAt);
+        running = false;
+    }
+
+    public void resume() {
+        if (running) return;
+        resumedAt = System.nanoTime();
+        running = true;
+    }
+
+    // Game time per real time; replays play back faster or slower than they were recorded.
+    public void setRate(double rate) {
+        long elapsed = elapsedNanos();
+        this.rate = rate;
+        if (running) {
+            accumulated = elapsed;
+            resumedAt = System.nanoTime();
+        }
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    // Continues from a previously recorded elapsed time, paused.
+    public void restore(long elapsedNanos) {
+        accumulated = elapsedNanos;
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long elapsedNanos() {
+        return running ? accumulated + scaled(System.nanoTime() - resumedAt) : accumulated;
+    }
+
+    private long scaled(long nanos) {
+        return rate == 1 ? nanos : (long) (nanos * rate);
+    }
+
+    public long elapsedMillis() {
+        return elapsedNanos() / 1_000_000L;
+    }
+
+    public double elapsedSeconds() {
+        return elapsedNanos() / 1e9;
+    }
+}
@@ -0,0 +1,121 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events for the game lifecycle, under the "Memory Matrix" category.
+// Every event carries the level, theme and card count of the current game plus its duration.
+// Code that does not know the game (cards, menus, progress) takes them from setContext().
+// Record with: java -XX:StartFlightRecording:filename=game.jfr ... MemoryGame
+// Without a recording, begin()/commit() are no-ops the JIT removes along with the allocation.
+public final class GameEvents {
+
+    private static volatile String level = "";
+    private static volatile String theme = "";
+    private static volatile int cards;
+
+    private GameEvents() {}
+
+    public static void setContext(String level, String theme, int cards) {
+        GameEvents.level = level == null ? "" : level;
+        GameEvents.theme = theme == null ? "" : theme;
+        GameEvents.cards = cards;
+    }
+
+    @Category("Memory Matrix")
+    @StackTrace(false)
+    abstract static class GameEvent extends Event {
+        @Label("Level")
+        String level;
+
+        @Label("Theme")
+        String theme;
+
+        @Label("Card Count")
+        int cardCount;
+
+        // Ends the event and commits it with the current game context, if it is being recorded.
+        void finish() {
+            end();
+            if (!shouldCommit()) return;
+            if (level == null) level = GameEvents.level;
+            if (theme == null) theme = GameEvents.theme;
+            if (cardCount == 0) cardCount = GameEvents.cards;
+            commit();
+        }
+    }
+
+    @Name("memorymatrix.SceneBuild")
+    @Label("Scene Build")
+    static final class SceneBuild extends GameEvent {
+        @Label("Scene")
+        String scene;
+
+        SceneBuild(String scene) {
+            this.scene = scene;
+        }
+    }
+
+    @Name("memorymatrix.ImageLoad")
+    @Label("Image Load")
+    @Description("Loading or decoding a card face when it is revealed")
+    static final class ImageLoad extends GameEvent {
+        @Label("Face")
+        String face;
+
+        @Label("Decode Size")
+        int decodeSize;
+    }
+
+    @Name("memorymatrix.Generate")
+    @Label("Board Generation")
+    static final class Generate extends GameEvent {
+        @Label("Seed")
+        long seed;
+    }
+
+    @Name("memorymatrix.PairResolved")
+    @Label("Pair Resolved")
+    static final class PairResolved extends GameEvent {
+        @Label("Match")
+        boolean match;
+
+        @Label("Matches Found")
+        int matchesFound;
+    }
+
+    @Name("memorymatrix.Progress")
+    @Label("Progress Save/Load")
+    static final class Progress extends GameEvent {
+        @Label("Operation")
+        String operation;
+
+        @Label("Profile")
+        String profile;
+
+        Progress(String operation) {
+            this.operation = operation;
+        }
+    }
+
+    @Name("memorymatrix.LevelComplete")
+    @Label("Level Complete")
+    @Description("Scoring and recording a finished level; the play time is a field")
+    static final class LevelComplete extends GameEvent {
+        @Label("Score")
+        int score;
+
+        @Label("Attempts")
+        int attempts;
+
+        @Label("Mismatches")
+        int mismatches;
+
+        @Label("Play Time")
+        @Timespan(Timespan.MILLISECONDS)
+        long playTime;
+    }
+}
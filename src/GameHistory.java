@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Append-only log of finished games, memory-mapped so recording a game is a few stores into
+// the mapping. Every record also goes into a bounded top-K heap per level and theme (and per
+// level across all themes), so leaderboards never scan the log.
+//
+// File layout: a 16 byte header (magic "MMHL", version, record size, reserved) followed by
+// fixed 32 byte records. A record's last int is written last; replay stops at the first
+// record without it, which drops a record torn by a crash.
+public class GameHistory {
+
+    public static final int TOP_K = 10;
+    public static final int ANY_THEME = 255;
+
+    private static final int MAGIC = 0x4D4D484C;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final int RECORD = 32;
+    private static final int COMMIT = 0x52454331;
+    private static final long GROW_BYTES = 1L << 20;
+
+    public record Entry(int level, int theme, int attempts, int mismatches, int elapsedMillis, int score, long timestamp) {}
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingInt(Entry::score)
+            .thenComparing(Comparator.comparingLong(Entry::timestamp).reversed());
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private long capacity;
+    private int count;
+
+    private final Map<Integer, PriorityQueue<Entry>> top = new HashMap<>();
+    private final int[] bestByLevel = new int[256];
+
+    public GameHistory(Path file) {
+        this.file = file;
+    }
+
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        remap(Math.max(GROW_BYTES, size));
+
+        if (size == 0 || map.getInt(0) == 0) {
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+            map.putInt(8, RECORD);
+            map.putInt(12, 0);
+        } else if (map.getInt(0) != MAGIC || map.getInt(8) != RECORD) {
+            throw new IOException("Not a game history file: " + file);
+        }
+
+        count = 0;
+        top.clear();
+        Arrays.fill(bestByLevel, -1);
+        long pos = HEADER;
+        while (pos + RECORD <= capacity && map.getInt((int) pos + 28) == COMMIT) {
+            int p = (int) pos;
+            int level = map.get(p) & 0xFF;
+            int score = map.getInt(p + 16);
+            // Most records cannot reach a top-K list; skip building an Entry for those.
+            if (qualifies(key(level, map.get(p + 1) & 0xFF), score) || qualifies(key(level, ANY_THEME), score)) {
+                index(read(p));
+            } else {
+                bestByLevel[level] = Math.max(bestByLevel[level], score);
+            }
+            count++;
+            pos += RECORD;
+        }
+    }
+
+    private void remap(long bytes) throws IOException {
+        capacity = bytes;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        map.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private Entry read(int pos) {
+        return new Entry(map.get(pos) & 0xFF, map.get(pos + 1) & 0xFF, map.getInt(pos + 4), map.getInt(pos + 8),
+                map.getInt(pos + 12), map.getInt(pos + 16), map.getLong(pos + 20));
+    }
+
+    public synchronized void record(Entry e) {
+        if (map == null) return;
+        try {
+            long pos = HEADER + (long) count * RECORD;
+            if (pos + RECORD > capacity) {
+                if (capacity + GROW_BYTES > Integer.MAX_VALUE) throw new IOException("History file is full");
+                remap(capacity + GROW_BYTES);
+            }
+
+            int p = (int) pos;
+            map.put(p, (byte) e.level());
+            map.put(p + 1, (byte) e.theme());
+            map.putShort(p + 2, (short) 0);
+            map.putInt(p + 4, e.attempts());
+            map.putInt(p + 8, e.mismatches());
+            map.putInt(p + 12, e.elapsedMillis());
+            map.putInt(p + 16, e.score());
+            map.putLong(p + 20, e.timestamp());
+            map.putInt(p + 28, COMMIT);
+            count++;
+            index(e);
+        } catch (IOException ex) {
+            System.err.println("Failed to record game: " + ex.getMessage());
+        }
+    }
+
+    // O(log K): each bounded min-heap only replaces its lowest score.
+    private void index(Entry e) {
+        offer(key(e.level(), e.theme()), e);
+        offer(key(e.level(), ANY_THEME), e);
+        bestByLevel[e.level()] = Math.max(bestByLevel[e.level()], e.score());
+    }
+
+    private boolean qualifies(int key, int score) {
+        PriorityQueue<Entry> heap = top.get(key);
+        return heap == null || heap.size() < TOP_K || score >= heap.peek().score();
+    }
+
+    private void offer(int key, Entry e) {
+        PriorityQueue<Entry> heap = top.computeIfAbsent(key, k -> new PriorityQueue<>(TOP_K + 1, BY_SCORE));
+        if (heap.size() < TOP_K) {
+            heap.offer(e);
+        } else if (BY_SCORE.compare(e, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(e);
+        }
+    }
+
+    private static int key(int level, int theme) {
+        return (level << 8) | theme;
+    }
+
+    // Best games first; theme may be ANY_THEME.
+    public synchronized List<Entry> top(int level, int theme) {
+        PriorityQueue<Entry> heap = top.get(key(level, theme));
+        List<Entry> result = heap == null ? new ArrayList<>() : new ArrayList<>(heap);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+
+    // Sum of the best score reached on each level.
+    public synchronized int bestTotal() {
+        int total = 0;
+        for (int best : bestByLevel) {
+            if (best > 0) total += best;
+        }
+        return total;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    // Forgets anything read so far and stops recording, for a history that could not be loaded.
+    public synchronized void discard() {
+        close();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close game history: " + e.getMessage());
+            }
+        }
+        map = null;
+        count = 0;
+        top.clear();
+        Arrays.fill(bestByLevel, -1);
+    }
+
+    public synchronized void close() {
+        if (map == null) return;
+        map.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close game history: " + e.getMessage());
+        }
+        map = null;
+    }
+}
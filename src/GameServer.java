@@ -0,0 +1,236 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Headless server hosting many boards at once, for kiosks and load testing. Each connection is
+// served by its own virtual thread and may drive any number of sessions; a session is a
+// BoardEngine plus its seed, level and clock. Sessions idle for longer than the timeout are evicted.
+//
+// Line protocol, one reply line per request:
+//   NEW <level index | CxR> [seed]  -> OK <session> <cards> <seed>
+//   FLIP <session> <card>           -> FIRST <pair> | SECOND <pair> | IGNORED
+//   RESOLVE <session>               -> MATCH | MISMATCH | NONE
+//   STATUS <session>                -> STATUS <attempts> <mismatches> <matches> <pairs> <elapsed ms> <score or -1>
+//   CLOSE <session>                 -> OK
+//   STATS                           -> STATS <live sessions> <created> <evicted>
+//   QUIT                            closes the connection
+// Errors are answered with ERR <reason>.
+//
+// Usage: java GameServer [port] [idle seconds]
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7777;
+    private static final String THEME = "Black and White Icons";
+
+    static final class Session {
+        final String level;
+        final long seed;
+        final BoardEngine engine;
+        long startedAt;
+        long finishedAt;
+        volatile long lastUsed = System.nanoTime();
+
+        Session(String level, long seed, short[] layout) {
+            this.level = level;
+            this.seed = seed;
+            engine = new BoardEngine(layout.length);
+            engine.reset(layout, layout.length);
+        }
+
+        synchronized String flip(int card) {
+            int result = engine.flip(card);
+            if (result == BoardEngine.IGNORED) return "IGNORED";
+            if (startedAt == 0) startedAt = System.nanoTime();
+            return (result == BoardEngine.FIRST ? "FIRST " : "SECOND ") + engine.getPairId(card);
+        }
+
+        synchronized String resolve() {
+            if (!engine.isPending()) return "NONE";
+            int result = engine.resolve();
+            if (engine.isComplete()) finishedAt = System.nanoTime();
+            return result == BoardEngine.MATCH ? "MATCH" : "MISMATCH";
+        }
+
+        synchronized String status() {
+            long elapsedMillis = startedAt == 0 ? 0 : ((finishedAt != 0 ? finishedAt : System.nanoTime()) - startedAt) / 1_000_000L;
+            int score = engine.isComplete() ? Scoring.score(level, elapsedMillis, engine.getMismatches()) : -1;
+            return "STATUS " + engine.getAttempts() + ' ' + engine.getMismatches() + ' ' + engine.getMatchesFound()
+                    + ' ' + engine.getPairCount() + ' ' + elapsedMillis + ' ' + score;
+        }
+    }
+
+    private final String[] levels = new LevelManager().getAllLevels();
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final long idleNanos;
+    private final ServerSocket server;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "session-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Port 0 picks a free port; see getPort().
+    public GameServer(int port, long idleSeconds) throws IOException {
+        idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        long period = Math.max(1, idleSeconds / 4);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public void start() {
+        Thread.ofPlatform().name("game-server-accept").daemon(true).start(this::acceptLoop);
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = handle(line);
+                if (reply == null) break;
+                out.write(reply);
+                out.write('\n');
+                // Pipelined requests are answered in one write.
+                if (!in.ready()) out.flush();
+            }
+        } catch (SocketException e) {
+            // Client went away.
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    String handle(String line) {
+        String[] args = line.trim().split("\\s+");
+        try {
+            switch (args[0].toUpperCase()) {
+                case "NEW":
+                    return newSession(args);
+                case "FLIP":
+                    return session(args).flip(Integer.parseInt(args[2]));
+                case "RESOLVE":
+                    return session(args).resolve();
+                case "STATUS":
+                    return session(args).status();
+                case "CLOSE":
+                    return sessions.remove(Long.parseLong(args[1])) != null ? "OK" : "ERR unknown session";
+                case "STATS":
+                    return "STATS " + sessions.size() + ' ' + nextId.get() + ' ' + evicted.get();
+                case "QUIT":
+                    return null;
+                default:
+                    return "ERR unknown command " + args[0];
+            }
+        } catch (NoSuchSessionException e) {
+            return "ERR unknown session";
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return "ERR missing argument";
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        } catch (RuntimeException | LinkageError e) {
+            // Anything else fails this request only; the connection and its other sessions go on.
+            System.err.println("Request failed: " + line + ": " + e);
+            return "ERR internal error";
+        }
+    }
+
+    private String newSession(String[] args) {
+        String level = parseLevel(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : CardValueGenerator.newSeed();
+        int cards = LevelManager.getCardCount(level);
+        short[] layout = CardValueGenerator.layout(CardValueGenerator.generate(THEME, cards / 2, seed));
+
+        long id = nextId.incrementAndGet();
+        sessions.put(id, new Session(level, seed, layout));
+        return "OK " + id + ' ' + cards + ' ' + seed;
+    }
+
+    private String parseLevel(String token) {
+        int x = token.indexOf('x');
+        if (x > 0) return LevelManager.customLevel(Integer.parseInt(token.substring(0, x)), Integer.parseInt(token.substring(x + 1)));
+
+        int index = Integer.parseInt(token);
+        if (index < 0 || index >= levels.length) throw new IllegalArgumentException("no level " + index);
+        return levels[index];
+    }
+
+    private Session session(String[] args) {
+        Session s = sessions.get(Long.parseLong(args[1]));
+        if (s == null) throw new NoSuchSessionException();
+        s.lastUsed = System.nanoTime();
+        return s;
+    }
+
+    private static final class NoSuchSessionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NoSuchSessionException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> {
+            boolean idle = now - s.lastUsed > idleNanos;
+            if (idle) evicted.incrementAndGet();
+            return idle;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.shutdownNow();
+        evictor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long idle = args.length > 1 ? Long.parseLong(args[1]) : 300;
+
+        GameServer server = new GameServer(port, idle);
+        server.start();
+        System.out.println("Memory Matrix server on localhost:" + server.getPort() + ", idle timeout " + idle + " s");
+        Thread.currentThread().join();
+    }
+}
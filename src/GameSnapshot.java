@@ -0,0 +1,152 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// A game in progress, saved so it can be resumed after the app closes. The faces and pair-id
+// layout are stored as they are, so resuming neither regenerates nor shuffles anything.
+//
+//   int    magic "MMSN"
+//   byte   version
+//   UTF level, UTF theme, long seed
+//   short  pair count, then UTF face per pair
+//   short  card count, then short pair id per card
+//   long   matched bits per 64 cards
+//   int    attempts, int mismatches, long elapsed millis
+//   int    CRC32 of everything above
+//
+// Everything before the matched bits is fixed for a board and encoded once by Encoder.start(),
+// so a snapshot per move is one array copy plus a few dozen bytes.
+public class GameSnapshot {
+
+    static final int MAGIC = 0x4D4D534E;
+    static final int VERSION = 1;
+
+    public final String level;
+    public final String theme;
+    public final long seed;
+    public final String[] faces;
+    public final short[] layout;
+    public final long[] matched;
+    public final int attempts;
+    public final int mismatches;
+    public final long elapsedMillis;
+
+    private GameSnapshot(String level, String theme, long seed, String[] faces, short[] layout,
+                         long[] matched, int attempts, int mismatches, long elapsedMillis) {
+        this.level = level;
+        this.theme = theme;
+        this.seed = seed;
+        this.faces = faces;
+        this.layout = layout;
+        this.matched = matched;
+        this.attempts = attempts;
+        this.mismatches = mismatches;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static final class Encoder {
+        private final CRC32 crc = new CRC32();
+        private byte[] header;
+
+        public void start(String level, String theme, long seed, String[] faces, short[] layout) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + faces.length * 32 + layout.length * 2);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeUTF(level);
+                out.writeUTF(theme);
+                out.writeLong(seed);
+                out.writeShort(faces.length);
+                for (String face : faces) out.writeUTF(face);
+                out.writeShort(layout.length);
+                for (short id : layout) out.writeShort(id);
+                header = bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public boolean isStarted() {
+            return header != null;
+        }
+
+        public byte[] encode(BoardEngine engine, long elapsedMillis) {
+            int words = (engine.getCardCount() + 63) >>> 6;
+            byte[] data = Arrays.copyOf(header, header.length + words * 8 + 4 + 4 + 8 + 4);
+            ByteBuffer buf = ByteBuffer.wrap(data, header.length, data.length - header.length);
+            for (int i = 0; i < words; i++) buf.putLong(engine.getMatchedWord(i));
+            buf.putInt(engine.getAttempts());
+            buf.putInt(engine.getMismatches());
+            buf.putLong(elapsedMillis);
+
+            crc.reset();
+            crc.update(data, 0, data.length - 4);
+            buf.putInt((int) crc.getValue());
+            return data;
+        }
+    }
+
+    // Null when there is no snapshot; an unreadable one is reported and ignored.
+    public static GameSnapshot read(Path file) {
+        try {
+            byte[] data = Files.readAllBytes(file);
+            return data.length == 0 ? null : decode(data);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable game snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static GameSnapshot decode(byte[] data) throws IOException {
+        if (data.length < 4 + 1 + 4) throw new IOException("Snapshot too short");
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        if (ByteBuffer.wrap(data, data.length - 4, 4).getInt() != (int) crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - 4));
+        if (in.readInt() != MAGIC) throw new IOException("Not a game snapshot");
+        int version = in.readUnsignedByte();
+        if (version > VERSION) throw new IOException("Unsupported snapshot version " + version);
+
+        String level = in.readUTF();
+        String theme = in.readUTF();
+        long seed = in.readLong();
+
+        String[] faces = new String[in.readUnsignedShort()];
+        for (int i = 0; i < faces.length; i++) faces[i] = in.readUTF();
+
+        short[] layout = new short[in.readUnsignedShort()];
+        if (layout.length != faces.length * 2) throw new IOException("Bad card count " + layout.length);
+        for (int i = 0; i < layout.length; i++) {
+            layout[i] = in.readShort();
+            if (layout[i] < 0 || layout[i] >= faces.length) throw new IOException("Bad pair id " + layout[i]);
+        }
+
+        long[] matched = new long[(layout.length + 63) >>> 6];
+        for (int i = 0; i < matched.length; i++) matched[i] = in.readLong();
+
+        int attempts = in.readInt();
+        int mismatches = in.readInt();
+        long elapsedMillis = in.readLong();
+        return new GameSnapshot(level, theme, seed, faces, layout, matched, attempts, mismatches, elapsedMillis);
+    }
+
+    public String describe() {
+        long seconds = elapsedMillis / 1000;
+        return level + " | " + theme + " | " + seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+    }
+}
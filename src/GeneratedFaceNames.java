@@ -0,0 +1,32 @@
+// Names of the faces GeneratedFaces draws: "gen:<seed>:<index>". Kept apart from the rendering,
+// with no JavaFX dependency, so boards can be generated, replayed and served headless.
+public final class GeneratedFaceNames {
+
+    public static final int MAX_FACES = 1 << 15;
+
+    private static final String PREFIX = "gen:";
+
+    private GeneratedFaceNames() {}
+
+    public static String face(long seed, int index) {
+        return PREFIX + seed + ':' + index;
+    }
+
+    public static boolean isGenerated(String value) {
+        return value.startsWith(PREFIX);
+    }
+
+    public static long seed(String value) {
+        return Long.parseLong(value.substring(PREFIX.length(), separator(value)));
+    }
+
+    public static int index(String value) {
+        return Integer.parseInt(value.substring(separator(value) + 1));
+    }
+
+    private static int separator(String value) {
+        int sep = isGenerated(value) ? value.indexOf(':', PREFIX.length()) : -1;
+        if (sep < 0) throw new IllegalArgumentException("Not a generated face: " + value);
+        return sep;
+    }
+}
@@ -0,0 +1,77 @@
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+
+// Card faces drawn in code instead of loaded from disk, so a theme is never short of pairs.
+// A face is named by GeneratedFaceNames and always renders to the same black and white icon:
+// a mirrored 5x5 block pattern whose 15 free bits are a bijection of the index, so the
+// first 32768 faces of a seed are all distinct.
+//
+// Faces go through ImageCache like any image path, which renders them at the requested size
+// on whichever thread asks first (the prefetch pool for a new board).
+public class GeneratedFaces {
+
+    private static final int GRID = 5;
+    private static final int INK = 0xFF111111;
+    private static final int PAPER = 0xFFFFFFFF;
+
+    private GeneratedFaces() {}
+
+    public static WritableImage render(String value, int px) {
+        return render(GeneratedFaceNames.seed(value), GeneratedFaceNames.index(value), px);
+    }
+
+    public static WritableImage render(long seed, int index, int px) {
+        int pattern = pattern(seed, index);
+
+        int[] pixels = new int[px * px];
+        Arrays.fill(pixels, PAPER);
+
+        // A thin frame keeps faces readable even when the pattern is sparse.
+        int frame = Math.max(1, px / 32);
+        fillRect(pixels, px, 0, 0, px, frame);
+        fillRect(pixels, px, 0, px - frame, px, frame);
+        fillRect(pixels, px, 0, 0, frame, px);
+        fillRect(pixels, px, px - frame, 0, frame, px);
+
+        int margin = px / 8;
+        int cell = Math.max(1, (px - 2 * margin) / GRID);
+        int offset = (px - cell * GRID) / 2;
+        int gap = cell >= 6 ? Math.max(1, cell / 10) : 0;
+
+        for (int row = 0; row < GRID; row++) {
+            for (int col = 0; col < GRID; col++) {
+                // Columns 3 and 4 mirror columns 1 and 0.
+                int src = col < 3 ? col : GRID - 1 - col;
+                if ((pattern >> (row * 3 + src) & 1) == 0) continue;
+                fillRect(pixels, px, offset + col * cell + gap, offset + row * cell + gap, cell - 2 * gap, cell - 2 * gap);
+            }
+        }
+
+        WritableImage img = new WritableImage(px, px);
+        img.getPixelWriter().setPixels(0, 0, px, px, PixelFormat.getIntArgbInstance(), pixels, 0, px);
+        return img;
+    }
+
+    // Bijective on 15 bits: an odd multiplier permutes the index and the seed only XORs a mask.
+    static int pattern(long seed, int index) {
+        int mask = (int) (mix(seed) & (GeneratedFaceNames.MAX_FACES - 1));
+        return ((index * 0x2F6B) ^ mask) & (GeneratedFaceNames.MAX_FACES - 1);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static void fillRect(int[] pixels, int stride, int x, int y, int w, int h) {
+        for (int row = Math.max(0, y); row < Math.min(stride, y + h); row++) {
+            int base = row * stride;
+            for (int col = Math.max(0, x); col < Math.min(stride, x + w); col++) {
+                pixels[base + col] = INK;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.layout.GridPane;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Node-per-card board: a GridPane of pooled Card nodes.
+public class GridBoardView implements BoardView {
+
+    private final MemoryGame game;
+    private final GridPane grid;
+    private final List<Card> cardPool = new ArrayList<>();
+
+    public GridBoardView(MemoryGame game) {
+        this.game = game;
+
+        grid = new GridPane();
+        grid.setHgap(12);
+        grid.setVgap(12);
+        grid.setPadding(new Insets(20));
+        grid.setAlignment(Pos.CENTER);
+        grid.getStylesheets().add(Card.STYLESHEET);
+    }
+
+    @Override
+    public Node getNode() {
+        return grid;
+    }
+
+    // Grows the pool ahead of a bigger board; cards still on screen are resized by show().
+    @Override
+    public void prepare(int count, double cardSize, String face) {
+        while (cardPool.size() < count) cardPool.add(new Card(cardPool.size(), face, cardSize, game));
+    }
+
+    // Reassigns pooled cards to the new layout, only adding or removing the size difference.
+    @Override
+    public void show(int cols, int rows, double cardSize, String[] faces, short[] layout) {
+        int count = layout.length;
+        while (cardPool.size() < count) cardPool.add(new Card(cardPool.size(), faces[0], cardSize, game));
+
+        for (int i = 0; i < count; i++) {
+            Card card = cardPool.get(i);
+            card.assign(i, faces[layout[i]], cardSize);
+            GridPane.setConstraints(card, i % cols, i / cols);
+        }
+
+        ObservableList<Node> shown = grid.getChildren();
+        if (shown.size() > count) shown.remove(count, shown.size());
+        else if (shown.size() < count) shown.addAll(cardPool.subList(shown.size(), count));
+    }
+
+    @Override
+    public void reveal(int index) {
+        cardPool.get(index).reveal();
+    }
+
+    @Override
+    public void hide(int index) {
+        cardPool.get(index).hide();
+    }
+
+    @Override
+    public void setMatched(int index) {
+        cardPool.get(index).setMatched(true);
+    }
+
+    @Override
+    public void pop(int index) {
+        cardPool.get(index).pop();
+    }
+
+    @Override
+    public void shake(int index) {
+        cardPool.get(index).shake();
+    }
+}
@@ -3,6 +3,7 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
@@ -10,25 +11,19 @@ import javafx.stage.Stage;
 
 public class HomeMenu {
 
+    static final double WIDTH = 900;
+    static final double HEIGHT = 700;
+
+    // Built once by MemoryGame and reused; refresh() updates the parts that change.
     public static Scene create(Stage stage, MemoryGame game) {
+        GameEvents.SceneBuild event = new GameEvents.SceneBuild("home");
+        event.begin();
 
         VBox home = new VBox(25);
         home.setAlignment(Pos.CENTER);
         home.setPadding(new Insets(60));
-
-        Image backgroundImage = new Image("/images/background.png");
-        BackgroundSize backgroundSize = new BackgroundSize(
-                100, 100, true, true, true, true
-        );
-
-        BackgroundImage background = new BackgroundImage(
-                backgroundImage,
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundPosition.DEFAULT,
-                backgroundSize
-        );
-        home.setBackground(new Background(background));
+        home.setPrefSize(WIDTH, HEIGHT);
+        home.setBackground(background("/images/background.png"));
 
         Label subtitle = new Label("Sharpen your mind — match all the pairs!");
         subtitle.setFont(Font.font("Cambria", 18));
@@ -37,15 +32,23 @@ public class HomeMenu {
         buttons.setAlignment(Pos.CENTER);
 
         Button startButton = new Button("Start Game");
+        startButton.setId("start");
         startButton.setFont(Font.font("Cambria", 20));
         startButton.getStyleClass().add("gradient-btn");
         startButton.setOnAction(e -> {
             game.selectedLevel = game.levelManager.getDefaultLevel();
             game.setLevelDimensions(game.selectedLevel);
-            stage.setScene(ThemeSelection.create(stage, game));
+            game.showThemeSelection(stage);
         });
 
+        Button resumeButton = new Button("Resume Game");
+        resumeButton.setId("resume");
+        resumeButton.setFont(Font.font("Cambria", 20));
+        resumeButton.getStyleClass().add("gradient-btn");
+        resumeButton.setOnAction(e -> game.resumeSnapshot(stage));
+
         Button levelsButton = new Button("Levels / Difficulty");
+        levelsButton.setId("levels");
         levelsButton.setFont(Font.font("Cambria", 18));
         levelsButton.getStyleClass().add("gradient-btn");
         levelsButton.setOnAction(e -> {
@@ -59,6 +62,58 @@ public class HomeMenu {
         });
 
 
+        Button customButton = new Button("Custom Board");
+        customButton.setId("custom");
+        customButton.setFont(Font.font("Cambria", 18));
+        customButton.getStyleClass().add("gradient-btn");
+        customButton.setOnAction(e -> {
+            Stage popup = new Stage();
+            popup.setTitle("Custom Board");
+            popup.initOwner(stage);
+            popup.setResizable(false);
+
+            Spinner<Integer> cols = new Spinner<>(2, LevelManager.CUSTOM_MAX, 30);
+            Spinner<Integer> rows = new Spinner<>(2, LevelManager.CUSTOM_MAX, 30);
+            cols.setEditable(true);
+            rows.setEditable(true);
+
+            GridPane form = new GridPane();
+            form.setHgap(10);
+            form.setVgap(10);
+            form.addRow(0, new Label("Columns"), cols);
+            form.addRow(1, new Label("Rows"), rows);
+
+            Button playBtn = new Button("Choose Theme");
+            playBtn.setFont(Font.font("Cambria", 16));
+            playBtn.setOnAction(ev -> {
+                game.selectedLevel = LevelManager.customLevel(cols.getValue(), rows.getValue());
+                game.setLevelDimensions(game.selectedLevel);
+                popup.close();
+                game.showThemeSelection(stage);
+            });
+
+            Label note = new Label("Large boards scroll; hold Ctrl and use the wheel to zoom.");
+            note.setWrapText(true);
+
+            VBox layout = new VBox(12, form, note, playBtn);
+            layout.setPadding(new Insets(15));
+            layout.setAlignment(Pos.TOP_LEFT);
+
+            popup.setScene(new Scene(layout, 320, 200));
+            popup.show();
+        });
+
+        Button leaderboardButton = new Button("Leaderboard");
+        leaderboardButton.setId("leaderboard");
+        leaderboardButton.setFont(Font.font("Cambria", 18));
+        leaderboardButton.getStyleClass().add("gradient-btn");
+        leaderboardButton.setOnAction(e -> stage.setScene(Leaderboard.create(stage, game)));
+
+        Button replaysButton = new Button("Replays");
+        replaysButton.setFont(Font.font("Cambria", 18));
+        replaysButton.getStyleClass().add("gradient-btn");
+        replaysButton.setOnAction(e -> stage.setScene(ReplayBrowser.create(stage, game)));
+
         Button aboutButton = new Button("About the Game / Mechanics");
         aboutButton.setFont(Font.font("Cambria", 18));
         aboutButton.getStyleClass().add("gradient-btn");
@@ -103,13 +158,18 @@ public class HomeMenu {
         exitButton.setOnAction(e -> stage.close());
 
         buttons.getChildren().addAll(
+                resumeButton,
                 startButton,
                 levelsButton,
+                customButton,
+                leaderboardButton,
+                replaysButton,
                 aboutButton,
                 exitButton
         );
 
-        Label scoresLabel = new Label("Scores: " + game.totalScore);
+        Label scoresLabel = new Label();
+        scoresLabel.setId("scores");
         scoresLabel.setFont(Font.font("Cambria", 16));
         scoresLabel.setPadding(new Insets(20, 0, 0, 0));
         scoresLabel.setAlignment(Pos.CENTER);
@@ -119,8 +179,48 @@ public class HomeMenu {
         card.setPadding(new Insets(50));
         home.getChildren().add(card);
 
-        Scene scene = new Scene(home, 900, 700);
+        Scene scene = new Scene(home, WIDTH, HEIGHT);
+        refresh(scene, game);
+        event.finish();
         return scene;
 
     }
+
+    // Scores, the leaderboard and anything that plays a level wait for the history and level progress,
+    // which load in the background at startup. Replays stay enabled: playback and verification never
+    // read or change either one.
+    public static void refresh(Scene scene, MemoryGame game) {
+        boolean loaded = game.isDataLoaded();
+        Label scores = (Label) scene.lookup("#scores");
+        if (!loaded) scores.setText("Scores: loading...");
+        else if (game.isDataLoadFailed()) scores.setText("Scores: saved progress could not be loaded");
+        else scores.setText("Scores: " + game.history.bestTotal());
+        for (String id : new String[]{"#leaderboard", "#start", "#levels", "#custom", "#resume"}) {
+            scene.lookup(id).setDisable(!loaded);
+        }
+
+        Button resume = (Button) scene.lookup("#resume");
+        GameSnapshot snapshot = game.getResumable();
+        resume.setVisible(snapshot != null);
+        resume.setManaged(snapshot != null);
+        if (snapshot != null) resume.setText("Resume: " + snapshot.describe());
+    }
+
+    // Menu backgrounds are decoded once, at the menu's size on this screen, instead of at full resolution.
+    static Background background(String path) {
+        double scale = ImageCache.getOutputScale();
+        Image backgroundImage = ImageCache.get(path, WIDTH * scale, HEIGHT * scale);
+        BackgroundSize backgroundSize = new BackgroundSize(
+                100, 100, true, true, true, true
+        );
+
+        BackgroundImage background = new BackgroundImage(
+                backgroundImage,
+                BackgroundRepeat.NO_REPEAT,
+                BackgroundRepeat.NO_REPEAT,
+                BackgroundPosition.DEFAULT,
+                backgroundSize
+        );
+        return new Background(background);
+    }
 }
@@ -0,0 +1,173 @@
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Process-wide cache of decoded card images, keyed by resource path (or GeneratedFaces name)
+// and target size.
+// Entries are evicted least-recently-used once either budget is exceeded, and are held
+// through soft references so the GC can still reclaim them when memory gets tight.
+public class ImageCache {
+
+    private static final int MAX_ENTRIES = 1024;
+    private static final long MAX_BYTES = 96L * 1024 * 1024;
+
+    // Decode sizes in device pixels. Faces are decoded at the smallest tier that covers their
+    // on-screen size, so nearby card sizes share one decode and HiDPI screens stay sharp.
+    private static final int[] TIERS = {32, 48, 64, 96, 128, 160, 192, 256, 384, 512};
+    private static volatile double outputScale = 1;
+
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalBytes = 0;
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
+
+    private static final class Entry {
+        final SoftReference<Image> image;
+        final long bytes;
+
+        Entry(Image img) {
+            image = new SoftReference<>(img);
+            bytes = (long) img.getWidth() * (long) img.getHeight() * 4;
+        }
+    }
+
+    private ImageCache() {}
+
+    // The game window's render scale; card backs and menu backgrounds are rasterized at it too.
+    public static void setOutputScale(double scale) {
+        outputScale = scale > 0 ? scale : 1;
+    }
+
+    public static double getOutputScale() {
+        return outputScale;
+    }
+
+    // Decode size for an image shown at the given size in scene pixels.
+    public static int tier(double sceneSize) {
+        double px = sceneSize * outputScale;
+        for (int t : TIERS) {
+            if (t >= px) return t;
+        }
+        return (int) Math.ceil(px);
+    }
+
+    public static Image get(String path, double size) {
+        int px = Math.max(1, (int) Math.round(size));
+        String key = key(path, px);
+
+        Image cached = lookup(key);
+        if (cached != null) return cached;
+
+        Image img = decode(path, px, px);
+        store(key, img);
+        return img;
+    }
+
+    // Decodes to fit within width x height, e.g. a menu background at the window's size.
+    public static Image get(String path, double width, double height) {
+        int w = Math.max(1, (int) Math.round(width));
+        int h = Math.max(1, (int) Math.round(height));
+        String key = key(path, w) + 'x' + h;
+
+        Image cached = lookup(key);
+        if (cached != null) return cached;
+
+        Image img = decode(path, w, h);
+        store(key, img);
+        return img;
+    }
+
+    public static boolean contains(String path, double size) {
+        String key = key(path, Math.max(1, (int) Math.round(size)));
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            return e != null && e.image.get() != null;
+        }
+    }
+
+    private static String key(String path, int px) {
+        return path + '@' + px;
+    }
+
+    private static Image lookup(String key) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                Image img = e.image.get();
+                if (img != null) {
+                    hits++;
+                    return img;
+                }
+                // Reclaimed by the GC; forget the stale entry.
+                entries.remove(key);
+                totalBytes -= e.bytes;
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    private static Image decode(String path, int w, int h) {
+        if (GeneratedFaceNames.isGenerated(path)) return GeneratedFaces.render(path, Math.min(w, h));
+
+        try (InputStream in = ImageCache.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalArgumentException("Image not found: " + path);
+            Image img = new Image(in, w, h, true, true);
+            if (img.isError()) throw new IllegalStateException("Failed to decode: " + path, img.getException());
+            return img;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read: " + path, e);
+        }
+    }
+
+    private static void store(String key, Image img) {
+        synchronized (entries) {
+            Entry old = entries.put(key, new Entry(img));
+            if (old != null) totalBytes -= old.bytes;
+            totalBytes += entries.get(key).bytes;
+            trim();
+        }
+    }
+
+    private static void trim() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > MAX_ENTRIES || totalBytes > MAX_BYTES) && it.hasNext()) {
+            Entry e = it.next().getValue();
+            it.remove();
+            totalBytes -= e.bytes;
+            evictions++;
+        }
+    }
+
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalBytes = 0;
+        }
+    }
+
+    public static long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    public static long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    public static String describe() {
+        synchronized (entries) {
+            return "ImageCache: " + entries.size() + " entries, " + (totalBytes / 1024) + " KB, "
+                    + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+public class Leaderboard {
+
+    private static final String ALL_THEMES = "All themes";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.systemDefault());
+
+    public static Scene create(Stage stage, MemoryGame game) {
+
+        VBox root = new VBox(20);
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setPadding(new Insets(40));
+
+        Label header = new Label("Leaderboard");
+        header.setFont(Font.font("Cambria", 36));
+
+        ComboBox<String> levelBox = new ComboBox<>();
+        levelBox.getItems().addAll(game.levelManager.getAllLevels());
+        levelBox.setValue(game.levelManager.getAllLevels()[0]);
+
+        ComboBox<String> themeBox = new ComboBox<>();
+        themeBox.getItems().add(ALL_THEMES);
+        themeBox.getItems().addAll(CardValueGenerator.getThemeNames());
+        themeBox.setValue(ALL_THEMES);
+
+        HBox filters = new HBox(15, levelBox, themeBox);
+        filters.setAlignment(Pos.CENTER);
+
+        GridPane table = new GridPane();
+        table.setHgap(25);
+        table.setVgap(8);
+        table.setAlignment(Pos.TOP_CENTER);
+
+        Runnable refresh = () -> {
+            int level = levelBox.getItems().indexOf(levelBox.getValue());
+            int theme = ALL_THEMES.equals(themeBox.getValue())
+                    ? GameHistory.ANY_THEME
+                    : CardValueGenerator.themeId(themeBox.getValue());
+            fill(table, game.history.top(level, theme));
+        };
+        levelBox.setOnAction(e -> refresh.run());
+        themeBox.setOnAction(e -> refresh.run());
+        refresh.run();
+
+        Button back = new Button("Back");
+        back.setFont(Font.font("Cambria", 16));
+        back.setOnAction(e -> game.showHomeMenu(stage));
+
+        root.getChildren().addAll(header, filters, table, back);
+
+        return new Scene(root, 900, 700);
+    }
+
+    private static void fill(GridPane table, List<GameHistory.Entry> entries) {
+        table.getChildren().clear();
+
+        String[] headings = {"#", "Score", "Theme", "Attempts", "Mismatches", "Time", "Date"};
+        for (int c = 0; c < headings.length; c++) table.add(cell(headings[c], 18), c, 0);
+
+        if (entries.isEmpty()) {
+            table.add(cell("No games recorded yet.", 16), 0, 1, headings.length, 1);
+            return;
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            GameHistory.Entry e = entries.get(i);
+            int seconds = e.elapsedMillis() / 1000;
+            String[] values = {
+                    String.valueOf(i + 1),
+                    String.valueOf(e.score()),
+                    CardValueGenerator.themeName(e.theme()),
+                    String.valueOf(e.attempts()),
+                    String.valueOf(e.mismatches()),
+                    seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60,
+                    DATE.format(Instant.ofEpochMilli(e.timestamp()))
+            };
+            for (int c = 0; c < values.length; c++) table.add(cell(values[c], 16), c, i + 1);
+        }
+    }
+
+    private static Label cell(String text, int size) {
+        Label l = new Label(text);
+        l.setFont(Font.font("Cambria", size));
+        return l;
+    }
+}
@@ -14,25 +14,62 @@ public class LevelHandler {
 
     private final MemoryGame game;
 
+    private Stage owner;
+    private Stage completePopup;
+    private Label completeResult;
+    private Button nextBtn;
+    private String nextLevel;
+    private Stage timeUpPopup;
+
     public LevelHandler(MemoryGame game) {
         this.game = game;
     }
 
     public void computeScore() {
-        game.timeBonus = Math.max(0, (int)((300.0 / (game.elapsedSeconds + 1)) * 10));
-        game.accuracyBonus = Math.max(0, 200 - (game.mismatches * 12));
+        // Whole milliseconds, the resolution replays record, so a replay recomputes the same score.
+        game.timeBonus = Scoring.timeBonus(game.clock.elapsedMillis() / 1000.0);
+        game.accuracyBonus = Scoring.accuracyBonus(game.engine.getMismatches());
         game.score = game.basePoints + game.timeBonus + game.accuracyBonus;
         game.totalScore += game.score;
     }
 
     public void showLevelComplete(Stage stage) {
+        GameEvents.LevelComplete event = new GameEvents.LevelComplete();
+        event.begin();
         game.timerStop();
 
         computeScore();
+        game.recordResult();
 
-        String nextLevel = game.getNextLevel();
+        nextLevel = game.getNextLevel();
         boolean hasNext = nextLevel != null;
 
+        if (completePopup == null) buildCompletePopup(stage);
+        owner = stage;
+
+        completeResult.setText(
+                "Base Points: " + game.basePoints + "\n" +
+                        "Time Bonus: " + game.timeBonus + "\n" +
+                        "Accuracy Bonus: " + game.accuracyBonus + "\n" +
+                        "Total Score: " + game.score + "\n\n" +
+                        (hasNext ? "Proceed to next level?"
+                                : LevelManager.isCustom(game.selectedLevel) ? "Custom board complete!"
+                                : "You finished the last level!")
+        );
+        nextBtn.setDisable(!hasNext);
+        if (hasNext) game.prepareNextLevel(nextLevel);
+
+        completePopup.show();
+
+        event.score = game.score;
+        event.attempts = game.engine.getAttempts();
+        event.mismatches = game.engine.getMismatches();
+        event.playTime = game.clock.elapsedMillis();
+        event.finish();
+    }
+
+    // Dialogs are built on first use and reused for every later level.
+    private void buildCompletePopup(Stage stage) {
         Stage popup = new Stage();
         popup.setTitle("Level Complete");
         popup.initOwner(stage);
@@ -56,52 +93,50 @@ public class LevelHandler {
             -fx-background-radius: 5;
         """);
 
-        Label result = new Label(
-                "Base Points: " + game.basePoints + "\n" +
-                        "Time Bonus: " + game.timeBonus + "\n" +
-                        "Accuracy Bonus: " + game.accuracyBonus + "\n" +
-                        "Total Score: " + game.score + "\n\n" +
-                        (hasNext ? "Proceed to next level?" : "You finished the last level!")
-        );
-        result.setFont(Font.font("Cambria", 16));
-        result.setWrapText(true);
+        completeResult = new Label();
+        completeResult.setFont(Font.font("Cambria", 16));
+        completeResult.setWrapText(true);
 
-        Button nextBtn = new Button("Next Level");
+        nextBtn = new Button("Next Level");
         Button restartBtn = new Button("Restart");
         Button exitBtn = new Button("Exit to Menu");
-        nextBtn.setDisable(!hasNext);
 
         HBox buttons = new HBox(15, nextBtn, restartBtn, exitBtn);
         buttons.setAlignment(Pos.CENTER);
 
         nextBtn.setOnAction(e -> {
             popup.close();
-            game.selectedLevel = nextLevel;
-            game.setLevelDimensions(nextLevel);
-            game.startGame(stage);
+            game.startNextLevel(owner, nextLevel);
         });
 
         restartBtn.setOnAction(e -> {
             popup.close();
-            game.startGame(stage);
+            game.startGame(owner);
         });
 
         exitBtn.setOnAction(e -> {
             popup.close();
-            game.showHomeMenu(stage);
+            game.showHomeMenu(owner);
         });
 
-        layout.getChildren().addAll(header, pb, result, buttons);
+        layout.getChildren().addAll(header, pb, completeResult, buttons);
 
         Scene scene = new Scene(layout, 420, 330);
         popup.setScene(scene);
-        popup.show();
+        completePopup = popup;
     }
 
     public void handleTimeUp(Stage stage) {
         game.busy = true;
         game.timerStop();
 
+        if (timeUpPopup == null) buildTimeUpPopup(stage);
+        owner = stage;
+
+        timeUpPopup.show();
+    }
+
+    private void buildTimeUpPopup(Stage stage) {
         Stage popup = new Stage();
         popup.setTitle("Time's Up!");
         popup.initOwner(stage);
@@ -126,12 +161,12 @@ public class LevelHandler {
 
         retryBtn.setOnAction(e -> {
             popup.close();
-            game.startGame(stage);
+            game.startGame(owner);
         });
 
         exitBtn.setOnAction(e -> {
             popup.close();
-            game.showHomeMenu(stage);
+            game.showHomeMenu(owner);
         });
 
         HBox buttons = new HBox(15, retryBtn, exitBtn);
@@ -141,6 +176,6 @@ public class LevelHandler {
 
         Scene scene = new Scene(layout, 400, 250);
         popup.setScene(scene);
-        popup.show();
+        timeUpPopup = popup;
     }
 }
@@ -1,36 +1,146 @@
-import java.io.*;
+import java.io.File;
 import java.util.*;
 
 public class LevelManager {
-    private final String[] allLevels = {
+    private static final String[] allLevels = {
             "Easy – 4x3", "Classic – 4x4", "Medium – 5x4", "Hard – 6x5",
             "Expert – 8x5", "Master – 8x6", "Grandmaster – 9x6", "Legendary – 10x6"
     };
+    public static final String DEFAULT_PROFILE = "Player";
+    public static final String CUSTOM_PREFIX = "Custom – ";
+    public static final int CUSTOM_MAX = 100;
+
     private Set<String> unlockedLevels = new HashSet<>(Collections.singletonList("Easy – 4x3"));
-    private final File progressFile = new File("progress.dat");
+    private final ProgressStore store;
+    private String profile = DEFAULT_PROFILE;
+
+    public LevelManager() {
+        this(new File("progress.dat"));
+    }
+
+    public LevelManager(File progressFile) {
+        store = new ProgressStore(progressFile.toPath(), allLevels);
+    }
 
+    // Queues the write on a background thread; use flushProgress() to wait for it.
     public void saveProgress() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(progressFile))) {
-            oos.writeObject(unlockedLevels);
-        } catch (IOException ignored) {}
+        GameEvents.Progress event = new GameEvents.Progress("save");
+        event.begin();
+        long mask = 0;
+        for (int i = 0; i < allLevels.length; i++) {
+            if (unlockedLevels.contains(allLevels[i])) mask |= 1L << i;
+        }
+        store.put(profile, mask);
+        event.profile = profile;
+        event.finish();
+    }
+
+    public void flushProgress() {
+        GameEvents.Progress event = new GameEvents.Progress("flush");
+        event.begin();
+        store.flush();
+        event.profile = profile;
+        event.finish();
     }
 
-    @SuppressWarnings("unchecked")
     public void loadProgress() {
-        if (progressFile.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(progressFile))) {
-                Object read = ois.readObject();
-                if (read instanceof Set) unlockedLevels = (Set<String>) read;
-            } catch (Exception e) {
-                unlockedLevels = new HashSet<>(Collections.singletonList("Easy – 4x3"));
-            }
+        GameEvents.Progress event = new GameEvents.Progress("load");
+        event.begin();
+        store.load();
+        long mask = store.get(profile) | 1L;
+        unlockedLevels = new HashSet<>();
+        for (int i = 0; i < allLevels.length; i++) {
+            if ((mask & (1L << i)) != 0) unlockedLevels.add(allLevels[i]);
         }
+        event.profile = profile;
+        event.finish();
+    }
+
+    // Back to only the first level, in memory; the saved file is left alone.
+    public void resetProgress() {
+        unlockedLevels = new HashSet<>(Collections.singletonList(allLevels[0]));
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+        loadProgress();
     }
 
     public String[] getAllLevels() {
         return allLevels;
     }
 
+    public static int[] getDimensions(String level) {
+        return switch (level) {
+            case "Easy – 4x3" -> new int[]{4, 3};
+            case "Classic – 4x4" -> new int[]{4, 4};
+            case "Medium – 5x4" -> new int[]{5, 4};
+            case "Hard – 6x5" -> new int[]{6, 5};
+            case "Expert – 8x5" -> new int[]{8, 5};
+            case "Master – 8x6" -> new int[]{8, 6};
+            case "Grandmaster – 9x6" -> new int[]{9, 6};
+            case "Legendary – 10x6" -> new int[]{10, 6};
+            default -> isCustom(level) ? parseCustom(level) : new int[]{4, 4};
+        };
+    }
+
+    // Custom boards are named like the built-in levels, e.g. "Custom – 30x30", and never unlock anything.
+    public static String customLevel(int cols, int rows) {
+        return CUSTOM_PREFIX + cols + "x" + rows;
+    }
+
+    public static boolean isCustom(String level) {
+        return level.startsWith(CUSTOM_PREFIX);
+    }
+
+    private static int[] parseCustom(String level) {
+        String[] parts = level.substring(CUSTOM_PREFIX.length()).split("x");
+        try {
+            int cols = Math.max(2, Math.min(CUSTOM_MAX, Integer.parseInt(parts[0])));
+            int rows = Math.max(2, Math.min(CUSTOM_MAX, Integer.parseInt(parts[1])));
+            return new int[]{cols, rows};
+        } catch (RuntimeException e) {
+            return new int[]{4, 4};
+        }
+    }
+
+    // Index into getAllLevels(), or -1 for custom boards.
+    public static int levelIndex(String level) {
+        for (int i = 0; i < allLevels.length; i++) {
+            if (allLevels[i].equals(level)) return i;
+        }
+        return -1;
+    }
+
+    // An odd grid gets one extra card so every card has a pair.
+    public static int getCardCount(String level) {
+        int[] dims = getDimensions(level);
+        int cards = dims[0] * dims[1];
+        return cards + cards % 2;
+    }
+
+    public static int getCountdownSeconds(String level) {
+        return switch (level) {
+            case "Expert – 8x5" -> 180;
+            case "Master – 8x6" -> 210;
+            case "Grandmaster – 9x6" -> 240;
+            case "Legendary – 10x6" -> 270;
+            default -> -1;
+        };
+    }
+
+    // Large boards are drawn on a single Canvas. Override with -Dmemorymatrix.renderer=canvas|nodes.
+    public static boolean prefersCanvas(String level) {
+        String renderer = System.getProperty("memorymatrix.renderer", "");
+        if (renderer.equals("canvas")) return true;
+        if (renderer.equals("nodes")) return false;
+        return level.equals("Grandmaster – 9x6") || level.equals("Legendary – 10x6");
+    }
+
     public String getDefaultLevel() {
         return "Easy – 4x3";
     }
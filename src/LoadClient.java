@@ -0,0 +1,181 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Load generator for GameServer. Every client is a virtual thread with its own connection that
+// plays whole games with perfect memory; request latency and throughput are reported at the end.
+// "embedded" starts a server in this process on a free port, so a run needs nothing else.
+// Usage: java LoadClient [embedded | host:port] [clients] [games per client] [level index | CxR]
+public class LoadClient {
+
+    // Latency histogram in 10 microsecond buckets, up to 100 ms.
+    private static final int BUCKETS = 10_000;
+    private static final long BUCKET_NANOS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "embedded";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String level = args.length > 3 ? args[3] : "3";
+
+        GameServer embedded = null;
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        if (target.equals("embedded")) {
+            embedded = new GameServer(0, 60);
+            embedded.start();
+            port = embedded.getPort();
+        } else {
+            int colon = target.lastIndexOf(':');
+            host = target.substring(0, colon);
+            port = Integer.parseInt(target.substring(colon + 1));
+        }
+
+        System.out.printf("%d clients x %d games on %s:%d, level %s%n", clients, games, host, port, level);
+
+        long start = System.nanoTime();
+        List<Future<long[]>> results = new ArrayList<>(clients);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                String h = host;
+                int p = port;
+                results.add(pool.submit(() -> runClient(h, p, games, level)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] histogram = new long[BUCKETS];
+        int failed = 0;
+        for (Future<long[]> f : results) {
+            try {
+                long[] h = f.get();
+                for (int i = 0; i < BUCKETS; i++) histogram[i] += h[i];
+            } catch (Exception e) {
+                failed++;
+                System.err.println("Client failed: " + e.getCause());
+            }
+        }
+
+        long requests = Arrays.stream(histogram).sum();
+        System.out.printf("%d games, %d requests in %.2f s: %.0f req/s, %.0f games/s%n",
+                (long) (clients - failed) * games, requests, seconds, requests / seconds, (clients - failed) * games / seconds);
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms%n",
+                percentile(histogram, requests, 0.5), percentile(histogram, requests, 0.99), percentile(histogram, requests, 0.999));
+        if (failed > 0) System.out.println(failed + " clients failed");
+
+        if (embedded != null) {
+            System.out.println("Live sessions after run: " + embedded.sessionCount());
+            embedded.close();
+        }
+    }
+
+    private static double percentile(long[] histogram, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return (i + 1) * BUCKET_NANOS / 1e6;
+        }
+        return BUCKETS * BUCKET_NANOS / 1e6;
+    }
+
+    private static long[] runClient(String host, int port, int games, String level) throws IOException {
+        try (Connection conn = new Connection(host, port)) {
+            for (int g = 0; g < games; g++) playGame(conn, level);
+            return conn.histogram;
+        }
+    }
+
+    // Turns unseen cards over left to right and matches every pair as soon as both cards are known.
+    private static void playGame(Connection conn, String level) throws IOException {
+        String[] created = conn.request("NEW " + level).split(" ");
+        if (!created[0].equals("OK")) throw new IOException("NEW failed: " + String.join(" ", created));
+        String id = created[1];
+        int cards = Integer.parseInt(created[2]);
+        int pairs = cards / 2;
+
+        int[] seenAt = new int[pairs];
+        Arrays.fill(seenAt, -1);
+        Deque<int[]> known = new ArrayDeque<>();
+        int next = 0;
+        int matches = 0;
+
+        while (matches < pairs) {
+            if (!known.isEmpty()) {
+                int[] pair = known.pop();
+                flip(conn, id, pair[0]);
+                flip(conn, id, pair[1]);
+            } else {
+                int a = next++;
+                int pa = flip(conn, id, a);
+                if (seenAt[pa] >= 0) {
+                    flip(conn, id, seenAt[pa]);
+                } else {
+                    seenAt[pa] = a;
+                    int b = next++;
+                    int pb = flip(conn, id, b);
+                    if (pb != pa) {
+                        if (seenAt[pb] >= 0) known.push(new int[]{seenAt[pb], b});
+                        else seenAt[pb] = b;
+                    }
+                }
+            }
+            if (conn.request("RESOLVE " + id).equals("MATCH")) matches++;
+        }
+
+        String status = conn.request("STATUS " + id);
+        if (!status.startsWith("STATUS") || status.endsWith(" -1")) throw new IOException("Game not complete: " + status);
+        conn.request("CLOSE " + id);
+    }
+
+    private static int flip(Connection conn, String id, int card) throws IOException {
+        String reply = conn.request("FLIP " + id + ' ' + card);
+        int space = reply.indexOf(' ');
+        if (space < 0) throw new IOException("FLIP " + card + " failed: " + reply);
+        return Integer.parseInt(reply.substring(space + 1));
+    }
+
+    private static final class Connection implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final BufferedWriter out;
+        final long[] histogram = new long[BUCKETS];
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String request(String line) throws IOException {
+            long start = System.nanoTime();
+            out.write(line);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) throw new IOException("Server closed the connection");
+            histogram[(int) Math.min(BUCKETS - 1, (System.nanoTime() - start) / BUCKET_NANOS)]++;
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.write("QUIT\n");
+            out.flush();
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+
+public class LoadingScreen {
+
+    public static Scene create(Task<?> task, String theme) {
+
+        VBox box = new VBox(20);
+        box.setAlignment(Pos.CENTER);
+        box.setPadding(new Insets(40));
+
+        Label label = new Label("Preparing " + theme + "...");
+        label.setFont(Font.font("Cambria", 26));
+
+        ProgressBar pb = new ProgressBar();
+        pb.setPrefWidth(400);
+        pb.setPrefHeight(30);
+        pb.progressProperty().bind(task.progressProperty());
+
+        box.getChildren().addAll(label, pb);
+
+        return new Scene(box, 900, 700);
+    }
+}
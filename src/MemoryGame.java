@@ -1,34 +1,43 @@
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 public class MemoryGame extends Application {
 
+    private static final long LAUNCH_NANOS = System.nanoTime();
+
     private int COLS = 4;
     private int ROWS = 4;
     private int CARD_COUNT = COLS * ROWS;
 
-    Card firstSelected = null;
-    Card secondSelected = null;
+    final BoardEngine engine = new BoardEngine(60);
     boolean busy = false;
-    int attempts = 0;
-    int matchesFound = 0;
-    int mismatches = 0;
-    int elapsedSeconds = 0;
+    final GameClock clock = new GameClock();
+    final Runnable hudTick = this::updateTime;
     boolean timerStarted = false;
+    private int countdownSeconds = -1;
+    private int shownSeconds = -1;
+    private static final String[] TIME_TEXT = new String[3600];
 
     public int totalScore = 0;
     public int score = 0;
@@ -36,59 +45,435 @@ public class MemoryGame extends Application {
     public int timeBonus = 0;
     public int accuracyBonus = 0;
 
+    Scene gameScene;
+    BorderPane gameRoot;
+    DiagnosticsOverlay diagnostics;
+    BoardView board;
+    BoardView gridView;
+    BoardView canvasView;
+    BoardView virtualView;
+
+    Label titleLabel;
     Label attemptsLabel;
     Label matchesLabel;
     Label timeLabel;
-    Timeline timer;
+    final Runnable matchCheck = this::checkMatch;
+    private static final long MATCH_DELAY_MILLIS = 600;
+    private long matchDelayMillis = MATCH_DELAY_MILLIS;
+
+    // Clicks made while a pair is on show are queued, at most one whole pair, and played after it
+    // resolves. In fast-flip mode a click resolves the pair at once instead, and the pair stays on
+    // show for a time that follows the player's pace.
+    boolean fastFlip = Boolean.getBoolean("memorymatrix.fastflip");
+    private static final long MIN_REVEAL_MILLIS = 250;
+    private static final long PACE_IGNORE_NANOS = 3_000_000_000L;
+    private final int[] queuedClicks = new int[2];
+    private int queuedCount = 0;
+    private long lastClickNanos = 0;
+    private long paceNanos = 0;
+
+    // The game in progress is snapshotted after every resolved pair, on focus loss and on exit,
+    // and offered on the home menu at the next start.
+    private static final Path SNAPSHOT_FILE = Paths.get("snapshot.dat");
+    private static final byte[] NO_SNAPSHOT = new byte[0];
+    private final AtomicFileWriter snapshotWriter = new AtomicFileWriter(SNAPSHOT_FILE);
+    private final GameSnapshot.Encoder snapshotEncoder = new GameSnapshot.Encoder();
+    private GameSnapshot resumable;
+    private byte[] lastSnapshot;
+
+    private static final Path REPLAY_DIR = Paths.get("replays");
+    private static final DateTimeFormatter REPLAY_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    final ReplayRecorder recorder = new ReplayRecorder();
+    ReplayPlayer playback;
+    long seed;
 
     List<String> cardValues;
+    String[] faces;
+    short[] layout;
     public String selectedLevel = "Classic – 4x4";
     public String selectedTheme = "Black and White Icons";
     private double cardSize = 120;
+    // Faces past this are decoded when their cells scroll into view.
+    private static final int PREFETCH_LIMIT = 256;
+
+    // The next level, built while the completion dialog is open; see prepareNextLevel().
+    private record NextLevel(String level, String theme, long seed, double cardSize, List<String> values) {}
+    private NextLevel nextLevel;
+    private Task<?> nextLevelPrefetch;
 
     public LevelManager levelManager;
     public LevelHandler levelHandler;
+    public GameHistory history;
+    private volatile boolean dataLoaded = false;
+    private volatile boolean dataLoadFailed = false;
+    private Scene homeScene;
+    private Scene themeScene;
 
     @Override
     public void start(Stage primaryStage) {
         levelManager = new LevelManager();
-        levelManager.loadProgress();
         levelHandler = new LevelHandler(this);
+        history = new GameHistory(Paths.get("history.log"));
+        // The stage reports its scale once shown; until then it opens on the primary screen.
+        ImageCache.setOutputScale(Screen.getPrimary().getOutputScaleX());
+        primaryStage.outputScaleXProperty().addListener((obs, old, scale) -> ImageCache.setOutputScale(scale.doubleValue()));
+        resumable = GameSnapshot.read(SNAPSHOT_FILE);
         showHomeMenu(primaryStage);
+        if (Diagnostics.LOG_STARTUP) logFirstFrame();
+        loadInBackground();
+    }
+
+    // The menu is shown first; progress, history and theme indexes load behind it. Everything that
+    // reads or changes level progress stays disabled on the menu until the load has finished.
+    private void loadInBackground() {
+        Task<Void> load = new Task<>() {
+            @Override
+            protected Void call() {
+                long start = System.nanoTime();
+                levelManager.loadProgress();
+                try {
+                    history.open();
+                } catch (IOException e) {
+                    System.err.println("Game history unavailable: " + e.getMessage());
+                }
+                CardValueGenerator.indexThemes();
+                if (Diagnostics.LOG_STARTUP) {
+                    System.out.println("Startup data loaded in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+                return null;
+            }
+        };
+        load.setOnSucceeded(e -> {
+            dataLoaded = true;
+            if (homeScene != null) HomeMenu.refresh(homeScene, this);
+        });
+        // The game stays playable without saved data: it starts from the first level with no history.
+        load.setOnFailed(e -> {
+            System.err.println("Startup loading failed: " + load.getException());
+            levelManager.resetProgress();
+            history.discard();
+            dataLoadFailed = true;
+            dataLoaded = true;
+            if (homeScene != null) HomeMenu.refresh(homeScene, this);
+        });
+
+        Thread loader = new Thread(load, "startup-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void logFirstFrame() {
+        AnimationScheduler.requestFrames(now -> {
+            long launch = (System.nanoTime() - LAUNCH_NANOS) / 1_000_000;
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            System.out.println("First frame " + launch + " ms after launch (" + uptime + " ms JVM uptime)");
+            return false;
+        });
+    }
+
+    public boolean isDataLoaded() {
+        return dataLoaded;
+    }
+
+    public boolean isDataLoadFailed() {
+        return dataLoadFailed;
+    }
+
+    public GameSnapshot getResumable() {
+        return resumable;
+    }
+
+    @Override
+    public void stop() {
+        if (gameScene != null && gameScene.getWindow() != null) saveSnapshot();
+        snapshotWriter.flush(2000);
+        levelManager.flushProgress();
+        history.close();
+        Path csv = Diagnostics.exportCsv();
+        if (csv != null) System.out.println("Diagnostics written to " + csv.toAbsolutePath() + " (" + ImageCache.describe() + ")");
     }
 
 
     public void showHomeMenu(Stage stage) {
-        stage.setScene(HomeMenu.create(stage, this));
+        if (stage.getScene() == gameScene && playback == null) suspendGame();
+        stopPlayback();
+        cancelNextLevel();
+        if (homeScene == null) homeScene = HomeMenu.create(stage, this);
+        else HomeMenu.refresh(homeScene, this);
+        stage.setScene(homeScene);
+        stage.sizeToScene();
         stage.show();
     }
 
     public void showThemeSelection(Stage stage) {
-        stage.setScene(ThemeSelection.create(stage, this));
+        if (themeScene == null) themeScene = ThemeSelection.create(stage, this);
+        else ThemeSelection.refresh(themeScene, this);
+        stage.setScene(themeScene);
+        stage.sizeToScene();
     }
 
     public void setLevelDimensions(String level) {
-        switch (level) {
-            case "Easy – 4x3": COLS = 4; ROWS = 3; break;
-            case "Classic – 4x4": COLS = 4; ROWS = 4; break;
-            case "Medium – 5x4": COLS = 5; ROWS = 4; break;
-            case "Hard – 6x5": COLS = 6; ROWS = 5; break;
-            case "Expert – 8x5": COLS = 8; ROWS = 5; break;
-            case "Master – 8x6": COLS = 8; ROWS = 6; break;
-            case "Grandmaster – 9x6": COLS = 9; ROWS = 6; break;
-            case "Legendary – 10x6": COLS = 10; ROWS = 6; break;
-            default: COLS = 4; ROWS = 4; break;
-        }
-        CARD_COUNT = COLS * ROWS;
-        if (CARD_COUNT % 2 != 0) CARD_COUNT++;
-        basePoints = 100 * (Arrays.asList(levelManager.getAllLevels()).indexOf(level) + 1);
+        int[] dims = LevelManager.getDimensions(level);
+        COLS = dims[0];
+        ROWS = dims[1];
+        CARD_COUNT = LevelManager.getCardCount(level);
+        basePoints = Scoring.basePoints(level);
+    }
+
+    public int getPairsNeeded() {
+        return CARD_COUNT / 2;
     }
 
     public void startGame(Stage stage) {
+        GameEvents.SceneBuild event = new GameEvents.SceneBuild("game");
+        event.begin();
+        stopPlayback();
+        cancelNextLevel();
+        computeCardSize();
+        generateCardValues();
+        showBoard(stage);
+        event.finish();
+    }
+
+    // Uses the player's time on the completion dialog: the next board is generated, its faces are
+    // decoded in the background and its card backs and nodes are built off-screen, so "Next Level"
+    // only has to bind them. Restart or Exit drop the prepared level.
+    public void prepareNextLevel(String level) {
+        cancelNextLevel();
+        String theme = selectedTheme;
+        double size = cardSizeFor(level);
+        long nextSeed = CardValueGenerator.newSeed();
+        int pairs = LevelManager.getCardCount(level) / 2;
+
+        // Generated off the FX thread too, so the dialog opens without waiting for the board.
+        Task<List<String>> generate = new Task<>() {
+            @Override
+            protected List<String> call() {
+                return CardValueGenerator.generate(theme, pairs, nextSeed, level);
+            }
+        };
+        generate.setOnSucceeded(e -> {
+            if (nextLevelPrefetch != generate) return;
+            List<String> values = generate.getValue();
+            NextLevel next = new NextLevel(level, theme, nextSeed, size, values);
+            nextLevel = next;
+            Task<Void> prefetch = AssetPrefetcher.prefetch(
+                    values.subList(0, Math.min(values.size(), PREFETCH_LIMIT)), Card.decodeSize(size));
+            // Snapshots and nodes need the FX thread; doing them after the decode keeps the dialog responsive.
+            prefetch.setOnSucceeded(done -> {
+                if (nextLevel != next) return;
+                CardSkins.back(size);
+                CardSkins.matchedBack(size);
+                viewFor(level).prepare(values.size(), size, values.get(0));
+            });
+            nextLevelPrefetch = prefetch;
+        });
+        // A board that cannot be generated is left to startGame(), as when nothing was prepared.
+        generate.setOnFailed(e -> {
+            if (nextLevelPrefetch == generate) nextLevelPrefetch = null;
+        });
+        nextLevelPrefetch = generate;
+
+        Thread generator = new Thread(generate, "next-level");
+        generator.setDaemon(true);
+        generator.start();
+    }
+
+    private void cancelNextLevel() {
+        nextLevel = null;
+        if (nextLevelPrefetch != null) nextLevelPrefetch.cancel();
+        nextLevelPrefetch = null;
+    }
+
+    // Starts the level after the current one, from the prepared board when there is one.
+    public void startNextLevel(Stage stage, String level) {
+        NextLevel next = nextLevel;
+        nextLevel = null;
+        nextLevelPrefetch = null;
+
+        selectedLevel = level;
+        setLevelDimensions(level);
+        if (next == null || !next.level().equals(level) || !next.theme().equals(selectedTheme)) {
+            startGame(stage);
+            return;
+        }
+
+        GameEvents.SceneBuild event = new GameEvents.SceneBuild("game");
+        event.begin();
+        stopPlayback();
+        cardSize = next.cardSize();
+        seed = next.seed();
+        cardValues = next.values();
+        GameEvents.setContext(selectedLevel, selectedTheme, CARD_COUNT);
+        showBoard(stage);
+        event.finish();
+    }
+
+    public void prepareGame(Stage stage) {
+        computeCardSize();
+        generateCardValues();
+
+        Task<Void> prefetch = AssetPrefetcher.prefetch(
+                cardValues.subList(0, Math.min(cardValues.size(), PREFETCH_LIMIT)), Card.decodeSize(cardSize));
+        prefetch.setOnSucceeded(e -> showBoard(stage));
+        prefetch.setOnFailed(e -> {
+            System.err.println("Asset prefetch failed: " + prefetch.getException());
+            showBoard(stage);
+        });
+        stage.setScene(LoadingScreen.create(prefetch, selectedTheme));
+    }
+
+    // Plays a recording back on the game board; the recorded clock runs `speed` times faster.
+    public void startReplay(Stage stage, Replay replay, double speed) {
+        stopPlayback();
+        selectedLevel = replay.level;
+        selectedTheme = replay.theme;
+        setLevelDimensions(selectedLevel);
+        GameEvents.setContext(selectedLevel, selectedTheme, CARD_COUNT);
+        computeCardSize();
+        seed = replay.seed;
+        cardValues = replay.cardValues();
+        playback = new ReplayPlayer(this, replay, speed);
+
+        showBoard(stage);
+        matchDelayMillis = Math.round(MATCH_DELAY_MILLIS / speed);
+        clock.setRate(speed);
+        titleLabel.setText("Replay " + speed + "x | " + selectedLevel + " | " + selectedTheme);
+        playback.start();
+    }
+
+    private void stopPlayback() {
+        if (playback == null) return;
+        playback.stop();
+        playback = null;
+    }
+
+    private void showBoard(Stage stage) {
         resetGameState();
+        bindEngine();
+        if (playback == null) {
+            recorder.start(selectedLevel, selectedTheme, seed);
+            clearSnapshot();
+            snapshotEncoder.start(selectedLevel, selectedTheme, seed, faces, layout);
+        } else {
+            recorder.cancel();
+        }
+        presentBoard(stage);
+    }
+
+    // Continues the game saved in the snapshot found at startup. Only the matched faces are loaded;
+    // the replay recorder stays off, since the flips before the snapshot are not known.
+    public void resumeSnapshot(Stage stage) {
+        GameSnapshot snapshot = resumable;
+        if (snapshot == null) return;
+        GameEvents.SceneBuild event = new GameEvents.SceneBuild("resume");
+        event.begin();
+        stopPlayback();
+        cancelNextLevel();
+
+        selectedLevel = snapshot.level;
+        selectedTheme = snapshot.theme;
+        setLevelDimensions(selectedLevel);
+        resetGameState();
+        try {
+            if (CARD_COUNT != snapshot.layout.length) throw new IllegalArgumentException("Board size does not match " + selectedLevel);
+            engine.restore(snapshot.layout, snapshot.layout.length, snapshot.matched, snapshot.attempts, snapshot.mismatches);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring game snapshot: " + e.getMessage());
+            clearSnapshot();
+            HomeMenu.refresh(stage.getScene(), this);
+            return;
+        }
+        resumable = null;
+
         computeCardSize();
+        seed = snapshot.seed;
+        faces = snapshot.faces;
+        layout = snapshot.layout;
+        cardValues = new ArrayList<>(layout.length);
+        for (short id : layout) cardValues.add(faces[id]);
+        recorder.cancel();
+        snapshotEncoder.start(selectedLevel, selectedTheme, seed, faces, layout);
+        GameEvents.setContext(selectedLevel, selectedTheme, CARD_COUNT);
+        presentBoard(stage);
+
+        for (int i = 0; i < layout.length; i++) {
+            if (!engine.isMatched(i)) continue;
+            board.reveal(i);
+            board.setMatched(i);
+        }
+        timerStarted = true;
+        countdownSeconds = LevelManager.getCountdownSeconds(selectedLevel);
+        shownSeconds = -1;
+        clock.restore(snapshot.elapsedMillis * 1_000_000L);
+        clock.resume();
+        updateTime();
+        saveSnapshot();
+        event.finish();
+    }
+
+    // A pair on show is already counted as an attempt but not yet resolved, so no snapshot is taken
+    // then; the one from the last resolved pair stays.
+    private void saveSnapshot() {
+        if (playback != null || !timerStarted || !snapshotEncoder.isStarted() || engine.isComplete() || isTimedOut()) return;
+        if (engine.isPending()) return;
+        lastSnapshot = snapshotEncoder.encode(engine, clock.elapsedMillis());
+        snapshotWriter.write(lastSnapshot);
+    }
+
+    // Leaving a game for the home menu stops it and offers it for resuming in this session, from the
+    // same snapshot a restart would find. A pair still on show and queued clicks are not part of it.
+    private void suspendGame() {
+        AnimationScheduler.cancel(matchCheck);
+        queuedCount = 0;
+        busy = false;
+        timerStop();
+        saveSnapshot();
+        if (lastSnapshot == null) return;
+        try {
+            resumable = GameSnapshot.decode(lastSnapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void clearSnapshot() {
+        resumable = null;
+        lastSnapshot = null;
+        snapshotWriter.write(NO_SNAPSHOT);
+    }
+
+    private void presentBoard(Stage stage) {
+        if (gameScene == null) buildGameScene(stage);
 
-        BorderPane root = new BorderPane();
+        titleLabel.setText(selectedLevel + " | " + selectedTheme);
+        timeLabel.setText("Time: 0:00");
+        updateStats();
+        String renderer = useBoardView(selectedLevel);
+        board.show(COLS, ROWS, cardSize, faces, layout);
+        Diagnostics.startSession(selectedLevel, selectedTheme, renderer);
+
+        if (LevelManager.isCustom(selectedLevel)) {
+            gameRoot.setPrefSize(1000, 800);
+        } else {
+            gameRoot.setPrefSize(
+                    Math.max(900, COLS * (cardSize + 16) + 200),
+                    Math.max(700, ROWS * (cardSize + 16) + 200));
+        }
+        if (stage.getScene() != gameScene) stage.setScene(gameScene);
+
+        // Only node boards have per-card styling; on the canvas view this times an empty pass.
+        long cssStart = System.nanoTime();
+        board.getNode().applyCss();
+        Diagnostics.recordBoardCss(System.nanoTime() - cssStart);
+
+        stage.sizeToScene();
+        stage.show();
+    }
+
+    // The game scene is built once and reused for every restart and level change.
+    private void buildGameScene(Stage stage) {
+        gameRoot = new BorderPane();
 
         Image backgroundImage = new Image(getClass().getResource("/images/cardsmainbg.png").toExternalForm());
         BackgroundImage bgImage = new BackgroundImage(
@@ -98,37 +483,47 @@ public class MemoryGame extends Application {
                 BackgroundPosition.CENTER,
                 new BackgroundSize(1.0, 1.0, true, true, false, true)
         );
-        root.setBackground(new Background(bgImage));
-
-        root.setTop(makeTopBar(stage));
-        root.setBottom(makeBottomBar());
-
-        GridPane grid = new GridPane();
-        grid.setHgap(12);
-        grid.setVgap(12);
-        grid.setPadding(new Insets(20));
-        grid.setAlignment(Pos.CENTER);
+        gameRoot.setBackground(new Background(bgImage));
+
+        gameRoot.setTop(makeTopBar(stage));
+        gameRoot.setBottom(makeBottomBar());
+
+        diagnostics = new DiagnosticsOverlay();
+        gameScene = new Scene(new StackPane(gameRoot, diagnostics.getNode()));
+        diagnostics.install(gameScene);
+
+        stage.iconifiedProperty().addListener((obs, was, iconified) -> {
+            if (stage.getScene() != gameScene) return;
+            if (iconified) pauseGame();
+            else resumeGame();
+        });
+        stage.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused && stage.getScene() == gameScene) saveSnapshot();
+        });
+    }
 
-        generateCardValues();
-        List<Card> cards = createCards();
-
-        int i = 0;
-        for (int r = 0; r < ROWS; r++) {
-            for (int c = 0; c < COLS; c++) {
-                if (i >= cards.size()) break;
-                Card card = cards.get(i++);
-                card.setPrefSize(cardSize, cardSize);
-                grid.add(card, c, r);
-            }
+    // Picks the view for a level and returns its name for diagnostics.
+    private String useBoardView(String level) {
+        BoardView view = viewFor(level);
+        String renderer = view == virtualView ? "virtual" : view == canvasView ? "canvas" : "nodes";
+        if (view != board) {
+            board = view;
+            gameRoot.setCenter(board.getNode());
         }
+        return renderer;
+    }
 
-        root.setCenter(grid);
-
-        Scene scene = new Scene(root,
-                Math.max(900, COLS * (cardSize + 16) + 200),
-                Math.max(700, ROWS * (cardSize + 16) + 200));
-        stage.setScene(scene);
-        stage.show();
+    private BoardView viewFor(String level) {
+        if (LevelManager.isCustom(level)) {
+            if (virtualView == null) virtualView = new VirtualBoardView(this);
+            return virtualView;
+        } else if (LevelManager.prefersCanvas(level)) {
+            if (canvasView == null) canvasView = new CanvasBoardView(this);
+            return canvasView;
+        } else {
+            if (gridView == null) gridView = new GridBoardView(this);
+            return gridView;
+        }
     }
 
     private HBox makeTopBar(Stage stage) {
@@ -136,8 +531,8 @@ public class MemoryGame extends Application {
         top.setPadding(new Insets(12));
         top.setAlignment(Pos.CENTER_LEFT);
 
-        Label title = new Label(selectedLevel + " | " + selectedTheme);
-        title.setFont(Font.font("Cambria", 20));
+        titleLabel = new Label();
+        titleLabel.setFont(Font.font("Cambria", 20));
 
         attemptsLabel = new Label("Attempts: 0");
         attemptsLabel.setFont(Font.font("Cambria", 18));
@@ -159,7 +554,13 @@ public class MemoryGame extends Application {
         restart.setFont(Font.font("Cambria", 14));
         restart.setOnAction(e -> startGame(stage));
 
-        top.getChildren().addAll(title, attemptsLabel, matchesLabel, timeLabel, spacer, home, restart);
+        CheckBox fast = new CheckBox("Fast flip");
+        fast.setFont(Font.font("Cambria", 14));
+        fast.setSelected(fastFlip);
+        fast.setFocusTraversable(false);
+        fast.setOnAction(e -> fastFlip = fast.isSelected());
+
+        top.getChildren().addAll(titleLabel, attemptsLabel, matchesLabel, timeLabel, spacer, fast, home, restart);
         return top;
     }
 
@@ -167,136 +568,239 @@ public class MemoryGame extends Application {
         HBox bottom = new HBox();
         bottom.setPadding(new Insets(12));
         bottom.setAlignment(Pos.CENTER);
-        Label hint = new Label("Tip: Click a card to flip. Match all pairs!");
+        Label hint = new Label("Tip: Click a card to flip. Match all pairs! (F3: diagnostics)");
         bottom.getChildren().add(hint);
         return bottom;
     }
 
     private void generateCardValues() {
         int pairsNeeded = CARD_COUNT / 2;
-        cardValues = CardValueGenerator.generate(selectedTheme, pairsNeeded);
+        seed = CardValueGenerator.newSeed();
+        GameEvents.setContext(selectedLevel, selectedTheme, CARD_COUNT);
+        cardValues = CardValueGenerator.generate(selectedTheme, pairsNeeded, seed);
     }
 
-    private List<Card> createCards() {
-        List<Card> cards = new ArrayList<>();
-        for (String val : cardValues) cards.add(new Card(val, cardSize, this));
-        return cards;
+    private void bindEngine() {
+        // The same mapping replays are verified against.
+        layout = CardValueGenerator.layout(cardValues);
+        faces = new String[cardValues.size() / 2];
+        for (int i = 0; i < layout.length; i++) faces[layout[i]] = cardValues.get(i);
+        engine.reset(layout, layout.length);
     }
 
-    public void onCardClicked(Card card) {
-        if (busy || card.isMatched() || card.isRevealed()) return;
-
-        if (!timerStarted) startTimer();
-        card.reveal();
+    public void onCardClicked(int index) {
+        if (playback != null) return;
+        long clickNanos = System.nanoTime();
+        trackPace();
 
-        if (firstSelected == null) {
-            firstSelected = card;
+        if (busy && !fastFlip && queuedCount < queuedClicks.length) {
+            queuedClicks[queuedCount++] = index;
+            return;
+        }
+        // Fast flip, or a whole pair already waiting: settle the pair on show so input never lags further behind.
+        if (busy) settlePending();
+        // Settling plays the queued clicks; if they put a new pair on show, this click waits behind it
+        // rather than resolving a pair that was never drawn.
+        if (busy && queuedCount < queuedClicks.length) {
+            queuedClicks[queuedCount++] = index;
             return;
         }
+        if (applyFlip(index)) Diagnostics.inputReceived(clickNanos);
+    }
+
+    private void trackPace() {
+        long now = System.nanoTime();
+        long gap = now - lastClickNanos;
+        lastClickNanos = now;
+        if (gap < PACE_IGNORE_NANOS) paceNanos = paceNanos == 0 ? gap : (paceNanos * 3 + gap) / 4;
+    }
 
-        if (secondSelected == null && card != firstSelected) {
-            secondSelected = card;
+    // How long a resolved pair stays face up before checkMatch.
+    private long revealDelay() {
+        if (!fastFlip || playback != null || paceNanos == 0) return matchDelayMillis;
+        long pace = paceNanos / 1_000_000L * 3 / 2;
+        return Math.max(MIN_REVEAL_MILLIS, Math.min(MATCH_DELAY_MILLIS, pace));
+    }
+
+    private void settlePending() {
+        AnimationScheduler.cancel(matchCheck);
+        checkMatch();
+    }
+
+    // A recorded flip. Playback may run ahead of the scaled match delay, so a pending pair is settled first.
+    void playbackFlip(int index, long recordedMillis) {
+        while (busy) settlePending();
+        applyFlip(index);
+        if (clock.isRunning()) {
+            clock.restore(recordedMillis * 1_000_000L);
+            clock.resume();
+        }
+    }
+
+    // Returns false when the flip was not allowed and nothing changed on the board.
+    private boolean applyFlip(int index) {
+        int result = engine.flip(index);
+        if (result == BoardEngine.IGNORED) return false;
+
+        if (!timerStarted) startTimer();
+        recorder.flip(index, clock.elapsedMillis());
+        board.reveal(index);
+
+        if (result == BoardEngine.SECOND) {
             busy = true;
-            attempts++;
             updateStats();
 
-            Timeline t = new Timeline(new KeyFrame(Duration.millis(600), ev -> checkMatch()));
-            t.play();
+            AnimationScheduler.schedule(matchCheck, revealDelay());
         }
+        return true;
     }
 
     private void checkMatch() {
-        if (firstSelected != null && secondSelected != null) {
-            if (firstSelected.getValue().equals(secondSelected.getValue())) {
-                firstSelected.setMatched(true);
-                secondSelected.setMatched(true);
-                matchesFound++;
-                firstSelected.pop();
-                secondSelected.pop();
-                updateStats();
-
-                if (matchesFound == CARD_COUNT / 2)
-                    Platform.runLater(() ->
-                            levelHandler.showLevelComplete((Stage) timeLabel.getScene().getWindow()));
-
-            } else {
-                mismatches++;
-                firstSelected.shake();
-                secondSelected.shake();
-                firstSelected.hide();
-                secondSelected.hide();
+        GameEvents.PairResolved event = new GameEvents.PairResolved();
+        event.begin();
+        int first = engine.getFirst();
+        int second = engine.getSecond();
+
+        event.match = engine.resolve() == BoardEngine.MATCH;
+        if (event.match) {
+            board.setMatched(first);
+            board.setMatched(second);
+            board.pop(first);
+            board.pop(second);
+            updateStats();
+
+            if (engine.isComplete()) {
+                Stage stage = (Stage) timeLabel.getScene().getWindow();
+                if (playback != null) {
+                    timerStop();
+                    ReplayPlayer finished = playback;
+                    Platform.runLater(() -> finished.finished(stage));
+                } else {
+                    Platform.runLater(() -> levelHandler.showLevelComplete(stage));
+                }
             }
+
+        } else {
+            board.shake(first);
+            board.shake(second);
+            board.hide(first);
+            board.hide(second);
+        }
+        event.matchesFound = engine.getMatchesFound();
+        event.finish();
+
+        if (playback == null) {
+            if (engine.isComplete()) clearSnapshot();
+            else saveSnapshot();
         }
 
-        firstSelected = null;
-        secondSelected = null;
         busy = false;
+        drainQueuedClicks();
+    }
+
+    private void drainQueuedClicks() {
+        int count = queuedCount;
+        queuedCount = 0;
+        for (int i = 0; i < count; i++) applyFlip(queuedClicks[i]);
     }
 
     private void startTimer() {
         timerStarted = true;
+        countdownSeconds = LevelManager.getCountdownSeconds(selectedLevel);
+        shownSeconds = -1;
+        clock.start();
+        updateTime();
+    }
 
-        int countdown = getCountdownSeconds(selectedLevel);
+    // Refreshes the HUD from the clock and schedules itself for the next whole second,
+    // so late ticks never accumulate into drift and the label only changes when its text does.
+    private void updateTime() {
+        long elapsed = clock.elapsedMillis();
+        int seconds = (int) (elapsed / 1000);
+        int shown = countdownSeconds > 0 ? Math.max(0, countdownSeconds - seconds) : seconds;
 
-        if (countdown > 0) {
-            elapsedSeconds = countdown;
-            timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-                int min = elapsedSeconds / 60;
-                int sec = elapsedSeconds % 60;
-                timeLabel.setText(String.format("Time: %d:%02d", min, sec));
-                elapsedSeconds--;
-                if (elapsedSeconds < 0) {
-                    timerStop();
-                    Platform.runLater(() ->
-                            levelHandler.handleTimeUp((Stage) timeLabel.getScene().getWindow()));
-                }
-            }));
-        } else {
-            elapsedSeconds = 0;
-            timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-                elapsedSeconds++;
-                int min = elapsedSeconds / 60;
-                int sec = elapsedSeconds % 60;
-                timeLabel.setText(String.format("Time: %d:%02d", min, sec));
-            }));
+        if (shown != shownSeconds) {
+            shownSeconds = shown;
+            timeLabel.setText(timeText(shown));
+        }
+
+        if (countdownSeconds > 0 && elapsed >= countdownSeconds * 1000L) {
+            timerStop();
+            if (playback == null) clearSnapshot();
+            Platform.runLater(() ->
+                    levelHandler.handleTimeUp((Stage) timeLabel.getScene().getWindow()));
+            return;
         }
+        if (clock.isRunning()) AnimationScheduler.schedule(hudTick, Math.round((1000 - elapsed % 1000) / clock.getRate()));
+    }
 
-        timer.setCycleCount(Timeline.INDEFINITE);
-        timer.play();
+    private static String timeText(int seconds) {
+        String text = seconds < TIME_TEXT.length ? TIME_TEXT[seconds] : null;
+        if (text == null) {
+            text = "Time: " + seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+            if (seconds < TIME_TEXT.length) TIME_TEXT[seconds] = text;
+        }
+        return text;
     }
 
     public void timerStop() {
-        if (timer != null) timer.stop();
+        clock.pause();
+        AnimationScheduler.cancel(hudTick);
     }
 
-    private int getCountdownSeconds(String level) {
-        return switch (level) {
-            case "Expert – 8x5" -> 180;
-            case "Master – 8x6" -> 210;
-            case "Grandmaster – 9x6" -> 240;
-            case "Legendary – 10x6" -> 270;
-            default -> -1;
-        };
+    private void pauseGame() {
+        if (timerStarted && clock.isRunning()) timerStop();
+    }
+
+    private boolean isTimedOut() {
+        return countdownSeconds > 0 && clock.elapsedMillis() >= countdownSeconds * 1000L;
+    }
+
+    private void resumeGame() {
+        if (timerStarted && !clock.isRunning() && !isTimedOut() && !engine.isComplete()) {
+            clock.resume();
+            updateTime();
+        }
     }
 
     private void updateStats() {
-        attemptsLabel.setText("Attempts: " + attempts);
-        matchesLabel.setText("Matches: " + matchesFound + "/" + (CARD_COUNT / 2));
+        attemptsLabel.setText("Attempts: " + engine.getAttempts());
+        matchesLabel.setText("Matches: " + engine.getMatchesFound() + "/" + (CARD_COUNT / 2));
     }
 
     private void resetGameState() {
-        firstSelected = null;
-        secondSelected = null;
         busy = false;
-        attempts = 0;
-        matchesFound = 0;
-        mismatches = 0;
-        elapsedSeconds = 0;
         timerStarted = false;
         score = 0;
         timeBonus = 0;
         accuracyBonus = 0;
         timerStop();
+        clock.reset();
+        clock.setRate(1);
+        matchDelayMillis = MATCH_DELAY_MILLIS;
+        queuedCount = 0;
+        AnimationScheduler.cancel(matchCheck);
+    }
+
+    public void recordResult() {
+        if (recorder.isActive()) saveReplay(recorder.finish(clock.elapsedMillis(), score));
+
+        int level = LevelManager.levelIndex(selectedLevel);
+        if (level < 0) return;
+        int theme = CardValueGenerator.themeId(selectedTheme);
+        history.record(new GameHistory.Entry(level, theme < 0 ? GameHistory.ANY_THEME : theme,
+                engine.getAttempts(), engine.getMismatches(), (int) clock.elapsedMillis(), score,
+                System.currentTimeMillis()));
+    }
+
+    private void saveReplay(byte[] data) {
+        try {
+            Files.createDirectories(REPLAY_DIR);
+            Path file = REPLAY_DIR.resolve("replay-" + REPLAY_STAMP.format(LocalDateTime.now()) + Replay.EXTENSION);
+            new AtomicFileWriter(file).write(data);
+        } catch (IOException e) {
+            System.err.println("Failed to save replay: " + e.getMessage());
+        }
     }
 
     public String getNextLevel() {
@@ -307,14 +811,19 @@ public class MemoryGame extends Application {
     }
 
     private void computeCardSize() {
-        double allowedW = 700.0 / COLS * 3;
-        double allowedH = 500.0 / ROWS * 3;
+        cardSize = cardSizeFor(selectedLevel);
+    }
+
+    private double cardSizeFor(String level) {
+        int[] dims = LevelManager.getDimensions(level);
+        double allowedW = 700.0 / dims[0] * 3;
+        double allowedH = 500.0 / dims[1] * 3;
 
-        int levelIndex = Arrays.asList(levelManager.getAllLevels()).indexOf(selectedLevel);
+        int levelIndex = LevelManager.levelIndex(level);
         double scaleFactor = 1.0 - (levelIndex * 0.20);
         scaleFactor = Math.max(0.4, scaleFactor);
 
-        cardSize = Math.max(50, Math.min(140, Math.min(allowedW, allowedH) * scaleFactor));
+        return Math.max(50, Math.min(140, Math.min(allowedW, allowedH) * scaleFactor));
     }
 
     public static void main(String[] args) {
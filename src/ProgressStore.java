@@ -0,0 +1,139 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Binary progress file holding one unlocked-level bitmask per player profile.
+//
+//   int    magic "MMPG"
+//   byte   version
+//   short  profile count
+//   per profile: UTF name, long bitmask of unlocked level ordinals
+//   int    CRC32 of everything above
+//
+// Files written by older versions (a serialized HashSet of level names) are still read.
+public class ProgressStore {
+
+    private static final int MAGIC = 0x4D4D5047;
+    private static final int VERSION = 1;
+    // Legacy files only ever held a HashSet of level names.
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "java.util.HashSet;java.util.Map$Entry;java.lang.String;maxdepth=2;maxrefs=1024;maxbytes=65536;!*");
+
+    private final Path file;
+    private final String[] levels;
+    private final AtomicFileWriter writer;
+    private final Map<String, Long> profiles = new LinkedHashMap<>();
+
+    public ProgressStore(Path file, String[] levels) {
+        this.file = file;
+        this.levels = levels;
+        this.writer = new AtomicFileWriter(file);
+    }
+
+    public synchronized void load() {
+        // A queued put() must reach the file before it is read back, or the reload would undo it.
+        writer.flush(2000);
+        profiles.clear();
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.err.println("Failed to read progress: " + e.getMessage());
+            return;
+        }
+
+        try {
+            if (data.length >= 2 && (data[0] & 0xFF) == 0xAC && (data[1] & 0xFF) == 0xED) {
+                profiles.put(LevelManager.DEFAULT_PROFILE, decodeLegacy(data));
+            } else {
+                profiles.putAll(decode(data));
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            System.err.println("Ignoring unreadable progress file: " + e.getMessage());
+            profiles.clear();
+        }
+    }
+
+    public synchronized long get(String profile) {
+        return profiles.getOrDefault(profile, 0L);
+    }
+
+    public synchronized void put(String profile, long unlocked) {
+        profiles.put(profile, unlocked);
+        writer.write(encode(profiles));
+    }
+
+    public void flush() {
+        writer.flush(2000);
+    }
+
+    static byte[] encode(Map<String, Long> profiles) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(profiles.size());
+            for (Map.Entry<String, Long> e : profiles.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Map<String, Long> decode(byte[] data) throws IOException {
+        if (data.length < 4 + 1 + 2 + 4) throw new IOException("Progress file too short");
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        int stored = ((data[data.length - 4] & 0xFF) << 24) | ((data[data.length - 3] & 0xFF) << 16)
+                | ((data[data.length - 2] & 0xFF) << 8) | (data[data.length - 1] & 0xFF);
+        if (stored != (int) crc.getValue()) throw new IOException("Progress checksum mismatch");
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - 4));
+        if (in.readInt() != MAGIC) throw new IOException("Not a progress file");
+        int version = in.readUnsignedByte();
+        if (version > VERSION) throw new IOException("Unsupported progress version " + version);
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            result.put(name, in.readLong());
+        }
+        return result;
+    }
+
+    private long decodeLegacy(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            ois.setObjectInputFilter(LEGACY_FILTER);
+            Object read = ois.readObject();
+            long mask = 0;
+            if (read instanceof Set<?> names) {
+                for (int i = 0; i < levels.length; i++) {
+                    if (names.contains(levels[i])) mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// A decoded ReplayRecorder stream. The board is rebuilt from the level, theme and seed, so a
+// replay can be verified headless by running its flips through BoardEngine and recomputing
+// the score from the recorded clock.
+// Usage: java Replay [directory]   verifies every recording in the directory (default "replays")
+//        java Replay --self-check  records and verifies a game on a generated theme
+// Neither needs JavaFX on the classpath.
+public class Replay {
+
+    public static final String EXTENSION = ".mmr";
+
+    public final String level;
+    public final String theme;
+    public final long seed;
+    public final int[] flips;
+    public final long[] flipMillis;
+    public final long finalMillis;
+    public final int score;
+
+    private Replay(String level, String theme, long seed, int[] flips, long[] flipMillis, long finalMillis, int score) {
+        this.level = level;
+        this.theme = theme;
+        this.seed = seed;
+        this.flips = flips;
+        this.flipMillis = flipMillis;
+        this.finalMillis = finalMillis;
+        this.score = score;
+    }
+
+    public static Replay read(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+
+    public static Replay decode(byte[] data) throws IOException {
+        if (data.length < 4 + 1 + 4 + 8 + 4) throw new IOException("Replay too short");
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        int stored = ((data[data.length - 4] & 0xFF) << 24) | ((data[data.length - 3] & 0xFF) << 16)
+                | ((data[data.length - 2] & 0xFF) << 8) | (data[data.length - 1] & 0xFF);
+        if (stored != (int) crc.getValue()) throw new IOException("Replay checksum mismatch");
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - 4));
+        if (in.readInt() != ReplayRecorder.MAGIC) throw new IOException("Not a replay");
+        int version = in.readUnsignedByte();
+        if (version > ReplayRecorder.VERSION) throw new IOException("Unsupported replay version " + version);
+
+        String level = in.readUTF();
+        String theme = in.readUTF();
+        long seed = in.readLong();
+
+        int count = (int) readVarint(in);
+        if (count < 0 || count > data.length) throw new IOException("Bad flip count " + count);
+        int[] flips = new int[count];
+        long[] flipMillis = new long[count];
+        int index = 0;
+        long millis = 0;
+        for (int i = 0; i < count; i++) {
+            index += ReplayRecorder.unzigzag(readVarint(in));
+            millis += readVarint(in);
+            flips[i] = index;
+            flipMillis[i] = millis;
+        }
+        long finalMillis = millis + readVarint(in);
+        int score = (int) readVarint(in);
+        return new Replay(level, theme, seed, flips, flipMillis, finalMillis, score);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public List<String> cardValues() {
+        return CardValueGenerator.generate(theme, LevelManager.getCardCount(level) / 2, seed);
+    }
+
+    public boolean verify() {
+        return verify(new BoardEngine(LevelManager.getCardCount(level)));
+    }
+
+    // True if every flip is legal, the board ends complete and the recorded score matches.
+    public boolean verify(BoardEngine engine) {
+        if (flips.length % 2 != 0 || finalMillis < 0) return false;
+
+        short[] layout;
+        try {
+            layout = CardValueGenerator.layout(cardValues());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        engine.reset(layout, layout.length);
+
+        for (int i = 0; i < flips.length; i += 2) {
+            if (i > 0 && flipMillis[i] < flipMillis[i - 1]) return false;
+            if (engine.flip(flips[i]) != BoardEngine.FIRST) return false;
+            if (engine.flip(flips[i + 1]) != BoardEngine.SECOND) return false;
+            engine.resolve();
+        }
+        if (!engine.isComplete()) return false;
+
+        return Scoring.score(level, finalMillis, engine.getMismatches()) == score;
+    }
+
+    public String describe() {
+        long seconds = finalMillis / 1000;
+        return level + " | " + theme + " | score " + score + " | "
+                + seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+    }
+
+    public static List<Path> list(Path dir) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path p : stream) files.add(p);
+        } catch (IOException e) {
+            System.err.println("Failed to list replays: " + e.getMessage());
+        }
+        files.sort(null);
+        return files;
+    }
+
+    // Plays a perfect game on the default generated theme through ReplayRecorder, then checks that
+    // it verifies and that the same flips with a wrong score do not.
+    static boolean selfCheck() throws IOException {
+        String level = "Classic – 4x4";
+        String theme = "Black and White Icons";
+        long seed = 1L;
+        short[] layout = CardValueGenerator.layout(CardValueGenerator.generate(theme, LevelManager.getCardCount(level) / 2, seed));
+
+        int[] firstCard = new int[layout.length / 2];
+        Arrays.fill(firstCard, -1);
+        int[] secondCard = new int[layout.length / 2];
+        for (int i = 0; i < layout.length; i++) {
+            if (firstCard[layout[i]] < 0) firstCard[layout[i]] = i;
+            else secondCard[layout[i]] = i;
+        }
+
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.start(level, theme, seed);
+        long millis = 0;
+        for (int pair = 0; pair < firstCard.length; pair++) {
+            recorder.flip(firstCard[pair], millis += 400);
+            recorder.flip(secondCard[pair], millis += 400);
+        }
+        long finalMillis = millis + 600;
+        Replay good = decode(recorder.finish(finalMillis, Scoring.score(level, finalMillis, 0)));
+        Replay bad = new Replay(good.level, good.theme, good.seed, good.flips, good.flipMillis, good.finalMillis, good.score + 1);
+        return good.verify() && !bad.verify();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--self-check")) {
+            boolean ok = selfCheck();
+            System.out.println(ok ? "SELF-CHECK OK" : "SELF-CHECK FAILED");
+            if (!ok) System.exit(1);
+            return;
+        }
+
+        Path dir = Paths.get(args.length > 0 ? args[0] : "replays");
+        List<Path> files = list(dir);
+
+        List<Replay> replays = new ArrayList<>(files.size());
+        for (Path f : files) {
+            try {
+                replays.add(read(f));
+            } catch (IOException e) {
+                System.out.println("UNREADABLE " + f.getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        BoardEngine engine = new BoardEngine(64);
+        int valid = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < replays.size(); i++) {
+            if (replays.get(i).verify(engine)) valid++;
+            else System.out.println("INVALID " + replays.get(i).describe());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d replays, %d valid, %.1f ms (%.0f replays/s)%n",
+                replays.size(), valid, seconds * 1000, replays.size() / Math.max(seconds, 1e-9));
+    }
+}
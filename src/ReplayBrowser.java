@@ -0,0 +1,131 @@
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+public class ReplayBrowser {
+
+    private static final int SHOWN = 50;
+    private static final String[] SPEEDS = {"0.5x", "1x", "2x", "4x", "8x", "16x"};
+
+    public static Scene create(Stage stage, MemoryGame game) {
+
+        VBox root = new VBox(20);
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setPadding(new Insets(40));
+
+        Label header = new Label("Replays");
+        header.setFont(Font.font("Cambria", 36));
+
+        ComboBox<String> speedBox = new ComboBox<>();
+        speedBox.getItems().addAll(SPEEDS);
+        speedBox.setValue("1x");
+
+        Label status = new Label();
+        status.setFont(Font.font("Cambria", 16));
+
+        List<Path> files = Replay.list(Paths.get("replays"));
+        Collections.reverse(files);
+
+        Button verifyBtn = new Button("Verify All");
+        verifyBtn.setFont(Font.font("Cambria", 16));
+        verifyBtn.setOnAction(e -> {
+            // Every replay file is read and played back, so this runs off the FX thread.
+            Task<String> verify = new Task<>() {
+                @Override
+                protected String call() {
+                    BoardEngine engine = new BoardEngine(64);
+                    int valid = 0;
+                    long start = System.nanoTime();
+                    for (Path f : files) {
+                        try {
+                            if (Replay.read(f).verify(engine)) valid++;
+                        } catch (IOException ex) {
+                            System.err.println("Unreadable replay " + f.getFileName() + ": " + ex.getMessage());
+                        }
+                    }
+                    return valid + " of " + files.size() + " replays valid ("
+                            + (System.nanoTime() - start) / 1_000_000 + " ms)";
+                }
+            };
+            verify.setOnSucceeded(done -> {
+                status.setText(verify.getValue());
+                verifyBtn.setDisable(false);
+            });
+            verify.setOnFailed(done -> {
+                System.err.println("Replay verification failed: " + verify.getException());
+                status.setText("Verification failed");
+                verifyBtn.setDisable(false);
+            });
+
+            verifyBtn.setDisable(true);
+            status.setText("Verifying " + files.size() + " replays...");
+            Thread verifier = new Thread(verify, "replay-verifier");
+            verifier.setDaemon(true);
+            verifier.start();
+        });
+
+        HBox controls = new HBox(15, new Label("Speed"), speedBox, verifyBtn);
+        controls.setAlignment(Pos.CENTER);
+
+        VBox list = new VBox(8);
+        for (Path f : files.subList(0, Math.min(SHOWN, files.size()))) {
+            Replay replay;
+            try {
+                replay = Replay.read(f);
+            } catch (IOException ex) {
+                System.err.println("Unreadable replay " + f.getFileName() + ": " + ex.getMessage());
+                continue;
+            }
+
+            Label info = new Label(replay.describe());
+            info.setFont(Font.font("Cambria", 16));
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+
+            Button watch = new Button("Watch");
+            watch.setFont(Font.font("Cambria", 14));
+            watch.setOnAction(e -> {
+                double speed = Double.parseDouble(speedBox.getValue().replace("x", ""));
+                try {
+                    game.startReplay(stage, replay, speed);
+                } catch (IllegalArgumentException ex) {
+                    status.setText("Cannot play this replay: " + ex.getMessage());
+                }
+            });
+
+            HBox row = new HBox(15, info, spacer, watch);
+            row.setAlignment(Pos.CENTER_LEFT);
+            list.getChildren().add(row);
+        }
+        if (list.getChildren().isEmpty()) list.getChildren().add(new Label("No replays recorded yet."));
+
+        ScrollPane scroll = new ScrollPane(list);
+        scroll.setFitToWidth(true);
+        scroll.setPrefHeight(420);
+
+        Button back = new Button("Back");
+        back.setFont(Font.font("Cambria", 16));
+        back.setOnAction(e -> game.showHomeMenu(stage));
+
+        root.getChildren().addAll(header, controls, scroll, status, back);
+
+        return new Scene(root, 900, 700);
+    }
+}
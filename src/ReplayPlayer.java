@@ -0,0 +1,45 @@
+import javafx.scene.control.Alert;
+import javafx.stage.Stage;
+
+// Feeds a Replay's flips to the game board on the recorded schedule, `speed` times faster.
+public class ReplayPlayer {
+
+    private final MemoryGame game;
+    private final Replay replay;
+    private final double speed;
+    private final Runnable step = this::step;
+    private int next;
+
+    public ReplayPlayer(MemoryGame game, Replay replay, double speed) {
+        this.game = game;
+        this.replay = replay;
+        this.speed = speed;
+    }
+
+    public void start() {
+        next = 0;
+        if (replay.flips.length > 0) AnimationScheduler.schedule(step, 0);
+    }
+
+    public void stop() {
+        AnimationScheduler.cancel(step);
+    }
+
+    private void step() {
+        game.playbackFlip(replay.flips[next], replay.flipMillis[next]);
+        next++;
+        if (next < replay.flips.length) {
+            long gap = replay.flipMillis[next] - replay.flipMillis[next - 1];
+            AnimationScheduler.schedule(step, Math.round(gap / speed));
+        }
+    }
+
+    public void finished(Stage stage) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.initOwner(stage);
+        alert.setTitle("Replay");
+        alert.setHeaderText("Replay finished");
+        alert.setContentText(replay.describe() + "\n" + (replay.verify() ? "Score verified." : "Score does NOT match the moves."));
+        alert.show();
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Records the accepted flips of one game for Replay. Flips are appended as varints to a reused
+// buffer: the card index as a zigzag delta from the previous flip and the game clock as a delta
+// from the previous flip, so a typical flip takes two or three bytes.
+public class ReplayRecorder {
+
+    static final int MAGIC = 0x4D4D5250;
+    static final int VERSION = 1;
+
+    private byte[] body = new byte[256];
+    private int length;
+    private int flips;
+    private int lastIndex;
+    private long lastMillis;
+    private boolean active;
+
+    private String level;
+    private String theme;
+    private long seed;
+
+    public void start(String level, String theme, long seed) {
+        this.level = level;
+        this.theme = theme;
+        this.seed = seed;
+        length = 0;
+        flips = 0;
+        lastIndex = 0;
+        lastMillis = 0;
+        active = true;
+    }
+
+    public void cancel() {
+        active = false;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void flip(int index, long elapsedMillis) {
+        if (!active) return;
+        putVarint(zigzag(index - lastIndex));
+        putVarint(elapsedMillis - lastMillis);
+        lastIndex = index;
+        lastMillis = elapsedMillis;
+        flips++;
+    }
+
+    //   int magic "MMRP", byte version, UTF level, UTF theme, long seed
+    //   varint flip count, flips, varint final clock delta, varint score
+    //   int CRC32 of everything above
+    public byte[] finish(long elapsedMillis, int score) {
+        active = false;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(length + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(level);
+            out.writeUTF(theme);
+            out.writeLong(seed);
+            writeVarint(out, flips);
+            out.write(body, 0, length);
+            writeVarint(out, Math.max(0, elapsedMillis - lastMillis));
+            writeVarint(out, Math.max(0, score));
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void putVarint(long value) {
+        if (length + 10 > body.length) body = Arrays.copyOf(body, body.length * 2);
+        while ((value & ~0x7FL) != 0) {
+            body[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        body[length++] = (byte) value;
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+}
@@ -0,0 +1,29 @@
+// Level scoring, shared by the completion dialog, replay verification, the game server and the
+// benchmarks. Nothing here touches JavaFX, so scores can be computed headless.
+public final class Scoring {
+
+    private Scoring() {}
+
+    public static int timeBonus(double elapsedSeconds) {
+        return Math.max(0, (int)((300.0 / (elapsedSeconds + 1)) * 10));
+    }
+
+    public static int accuracyBonus(int mismatches) {
+        return Math.max(0, 200 - (mismatches * 12));
+    }
+
+    public static int basePoints(int levelIndex) {
+        return 100 * (levelIndex + 1);
+    }
+
+    // Custom boards earn 5 points per card instead of a per-level amount.
+    public static int basePoints(String level) {
+        if (LevelManager.isCustom(level)) return 5 * LevelManager.getCardCount(level);
+        return basePoints(LevelManager.levelIndex(level));
+    }
+
+    // Whole milliseconds, the resolution replays record, so a replay recomputes the same score.
+    public static int score(String level, long elapsedMillis, int mismatches) {
+        return basePoints(level) + timeBonus(elapsedMillis / 1000.0) + accuracyBonus(mismatches);
+    }
+}
@@ -0,0 +1,99 @@
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A theme packed by AtlasPacker: one texture holding every face, plus the sub-rectangle of each face.
+// Themes without an atlas.idx next to their images fall back to per-face decoding.
+public class ThemeAtlas {
+
+    public static final String ATLAS_NAME = "atlas";
+
+    private static final Map<String, Optional<ThemeAtlas>> atlases = new ConcurrentHashMap<>();
+
+    private final String imagePath;
+    private final int width;
+    private final int height;
+    private final int cellSize;
+    private final Map<String, int[]> regions;
+
+    private ThemeAtlas(String imagePath, int width, int height, int cellSize, Map<String, int[]> regions) {
+        this.imagePath = imagePath;
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.regions = regions;
+    }
+
+    public static ThemeAtlas forFace(String facePath) {
+        int slash = facePath.lastIndexOf('/');
+        if (slash < 0) return null;
+
+        String folder = facePath.substring(0, slash + 1);
+        ThemeAtlas atlas = atlases.computeIfAbsent(folder, ThemeAtlas::load).orElse(null);
+        if (atlas == null || !atlas.regions.containsKey(facePath.substring(slash + 1))) return null;
+        return atlas;
+    }
+
+    private static Optional<ThemeAtlas> load(String folder) {
+        try (InputStream in = ThemeAtlas.class.getResourceAsStream(folder + ATLAS_NAME + ".idx")) {
+            if (in == null) return Optional.empty();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            int width = 0, height = 0, cell = 0;
+            Map<String, int[]> regions = new HashMap<>();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] parts = line.split(" ");
+                if (parts[0].equals("size")) {
+                    width = Integer.parseInt(parts[1]);
+                    height = Integer.parseInt(parts[2]);
+                    cell = Integer.parseInt(parts[3]);
+                } else {
+                    regions.put(parts[0], new int[]{
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                            Integer.parseInt(parts[3]), Integer.parseInt(parts[4])
+                    });
+                }
+            }
+
+            if (width <= 0 || height <= 0 || cell <= 0) throw new IOException("Missing size line");
+            return Optional.of(new ThemeAtlas(folder + ATLAS_NAME + ".jpg", width, height, cell, regions));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring broken atlas in " + folder + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    // Decodes the whole sheet at a resolution where one cell is about faceSize pixels.
+    public Image getImage(double faceSize) {
+        return ImageCache.get(imagePath, sheetSize(faceSize));
+    }
+
+    public double sheetSize(double faceSize) {
+        double scale = Math.min(1.0, faceSize / cellSize);
+        return Math.max(width, height) * scale;
+    }
+
+    public Rectangle2D viewport(String facePath, Image sheet) {
+        int[] r = regions.get(facePath.substring(facePath.lastIndexOf('/') + 1));
+        double scale = sheet.getWidth() / width;
+        return new Rectangle2D(r[0] * scale, r[1] * scale, r[2] * scale, r[3] * scale);
+    }
+}
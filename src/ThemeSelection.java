@@ -1,9 +1,9 @@
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
@@ -11,24 +11,15 @@ import javafx.stage.Stage;
 public class ThemeSelection {
 
     public static Scene create(Stage stage, MemoryGame game) {
+        GameEvents.SceneBuild event = new GameEvents.SceneBuild("theme");
+        event.begin();
 
         VBox themeBox = new VBox(15);
         themeBox.setAlignment(Pos.CENTER);
         themeBox.setPadding(new Insets(40));
 
-        Image backgroundImage = new Image("/images/themeselectionbg.png");
-        BackgroundSize backgroundSize = new BackgroundSize(
-                100, 100, true, true, true, true
-        );
-
-        BackgroundImage background = new BackgroundImage(
-                backgroundImage,
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundPosition.DEFAULT, // full coverage
-                backgroundSize
-        );
-        themeBox.setBackground(new Background(background));
+        themeBox.setPrefSize(HomeMenu.WIDTH, HomeMenu.HEIGHT);
+        themeBox.setBackground(HomeMenu.background("/images/themeselectionbg.png"));
 
         Label label = new Label("Select Theme");
         label.setFont(Font.font("Cambria", 42));
@@ -36,7 +27,8 @@ public class ThemeSelection {
         String[] themes = {
                 "Nature",
                 "Space Exploration",
-                "Art & Paintings"
+                "Art & Paintings",
+                "Black and White Icons"
         };
 
         VBox buttons = new VBox(10);
@@ -45,16 +37,28 @@ public class ThemeSelection {
         for (String theme : themes) {
             Button b = new Button(theme);
             b.setFont(Font.font("Cambria", 20));
+            b.getStyleClass().add("theme-btn");
+            b.setUserData(theme);
             b.setOnAction(e -> {
                 game.selectedTheme = theme;
-                game.startGame(stage);
+                game.prepareGame(stage);
             });
             buttons.getChildren().add(b);
         }
 
         themeBox.getChildren().addAll(label, buttons);
 
-        return new Scene(themeBox, 900, 700);
+        Scene scene = new Scene(themeBox, HomeMenu.WIDTH, HomeMenu.HEIGHT);
+        refresh(scene, game);
+        event.finish();
+        return scene;
+    }
+
+    // The scene is reused; only themes with enough faces for the chosen board stay enabled.
+    public static void refresh(Scene scene, MemoryGame game) {
+        for (Node n : scene.getRoot().lookupAll(".theme-btn")) {
+            n.setDisable(CardValueGenerator.maxPairs((String) n.getUserData()) < game.getPairsNeeded());
+        }
     }
 
 }
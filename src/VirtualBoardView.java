@@ -0,0 +1,243 @@
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Scrollable, zoomable board for custom sizes far beyond the regular levels. Only the cells
+// inside the viewport have a Card node; cards that scroll out are reassigned to the cells
+// scrolling in, so node count and layout cost follow the window size, not the board size.
+// Ctrl + wheel zooms around the pointer.
+public class VirtualBoardView implements BoardView {
+
+    private static final double GAP = 12;
+    private static final double PADDING = 20;
+    private static final double ZOOM_STEP = 1.25;
+    private static final double MIN_CARD = 24;
+    private static final double MAX_CARD = 200;
+
+    private final MemoryGame game;
+    private final BorderPane holder;
+    private final Pane viewport;
+    private final ScrollBar hbar = new ScrollBar();
+    private final ScrollBar vbar = new ScrollBar();
+
+    private final List<Card> active = new ArrayList<>();
+    private final List<Card> free = new ArrayList<>();
+    private Card[] bound = new Card[0];
+    private boolean[] revealed = new boolean[0];
+    private boolean[] matched = new boolean[0];
+
+    private int cols;
+    private int rows;
+    private int count;
+    private double cardSize;
+    private String[] faces;
+    private short[] layout;
+
+    public VirtualBoardView(MemoryGame game) {
+        this.game = game;
+
+        viewport = new Pane() {
+            @Override
+            protected void layoutChildren() {
+                layoutCells();
+            }
+        };
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(viewport.widthProperty());
+        clip.heightProperty().bind(viewport.heightProperty());
+        viewport.setClip(clip);
+        viewport.setMinSize(0, 0);
+        viewport.addEventFilter(ScrollEvent.SCROLL, this::onScroll);
+
+        vbar.setOrientation(Orientation.VERTICAL);
+        hbar.valueProperty().addListener((obs, old, v) -> viewport.requestLayout());
+        vbar.valueProperty().addListener((obs, old, v) -> viewport.requestLayout());
+
+        holder = new BorderPane(viewport);
+        holder.setRight(vbar);
+        holder.setBottom(hbar);
+        holder.getStylesheets().add(Card.STYLESHEET);
+    }
+
+    @Override
+    public Node getNode() {
+        return holder;
+    }
+
+    @Override
+    public void show(int cols, int rows, double cardSize, String[] faces, short[] layout) {
+        this.count = layout.length;
+        this.cols = cols;
+        this.rows = (count + cols - 1) / cols;
+        this.faces = faces;
+        this.layout = layout;
+
+        releaseAll();
+        if (bound.length < count) {
+            bound = new Card[count];
+            revealed = new boolean[count];
+            matched = new boolean[count];
+        }
+        Arrays.fill(revealed, false);
+        Arrays.fill(matched, false);
+
+        this.cardSize = Math.round(cardSize);
+        hbar.setValue(0);
+        vbar.setValue(0);
+        viewport.requestLayout();
+    }
+
+    @Override
+    public void reveal(int index) {
+        revealed[index] = true;
+        if (bound[index] != null) bound[index].reveal();
+    }
+
+    @Override
+    public void hide(int index) {
+        revealed[index] = false;
+        if (bound[index] != null) bound[index].hide();
+    }
+
+    @Override
+    public void setMatched(int index) {
+        matched[index] = true;
+        if (bound[index] != null) bound[index].setMatched(true);
+    }
+
+    @Override
+    public void pop(int index) {
+        if (bound[index] != null) bound[index].pop();
+    }
+
+    @Override
+    public void shake(int index) {
+        if (bound[index] != null) bound[index].shake();
+    }
+
+    private void onScroll(ScrollEvent e) {
+        if (e.isControlDown()) {
+            double size = e.getDeltaY() > 0 ? cardSize * ZOOM_STEP : cardSize / ZOOM_STEP;
+            zoom(Math.round(Math.max(MIN_CARD, Math.min(MAX_CARD, size))), e.getX(), e.getY());
+        } else {
+            hbar.setValue(clamp(hbar.getValue() - e.getDeltaX(), hbar.getMax()));
+            vbar.setValue(clamp(vbar.getValue() - e.getDeltaY(), vbar.getMax()));
+        }
+        e.consume();
+    }
+
+    // Keeps the board point under the pointer in place while the cell size changes.
+    private void zoom(double size, double px, double py) {
+        if (size == cardSize) return;
+        double ratio = (size + GAP) / (cardSize + GAP);
+        double sx = (hbar.getValue() + px - PADDING) * ratio + PADDING - px;
+        double sy = (vbar.getValue() + py - PADDING) * ratio + PADDING - py;
+
+        // Every visible card has to be rebuilt at the new size.
+        releaseAll();
+        cardSize = size;
+        updateBars();
+        hbar.setValue(clamp(sx, hbar.getMax()));
+        vbar.setValue(clamp(sy, vbar.getMax()));
+        viewport.requestLayout();
+    }
+
+    private void updateBars() {
+        double stride = cardSize + GAP;
+        double w = viewport.getWidth();
+        double h = viewport.getHeight();
+        double contentW = PADDING * 2 + cols * stride - GAP;
+        double contentH = PADDING * 2 + rows * stride - GAP;
+
+        hbar.setMax(Math.max(0, contentW - w));
+        hbar.setVisibleAmount(hbar.getMax() * w / contentW);
+        hbar.setUnitIncrement(stride);
+        hbar.setBlockIncrement(w);
+        vbar.setMax(Math.max(0, contentH - h));
+        vbar.setVisibleAmount(vbar.getMax() * h / contentH);
+        vbar.setUnitIncrement(stride);
+        vbar.setBlockIncrement(h);
+        hbar.setValue(clamp(hbar.getValue(), hbar.getMax()));
+        vbar.setValue(clamp(vbar.getValue(), vbar.getMax()));
+    }
+
+    private void layoutCells() {
+        if (count == 0) return;
+        updateBars();
+
+        double stride = cardSize + GAP;
+        double sx = hbar.getValue();
+        double sy = vbar.getValue();
+        int c0 = cell(sx - PADDING, stride, cols);
+        int c1 = cell(sx + viewport.getWidth() - PADDING, stride, cols);
+        int r0 = cell(sy - PADDING, stride, rows);
+        int r1 = cell(sy + viewport.getHeight() - PADDING, stride, rows);
+
+        // Free the cards that left the visible range before binding the ones that entered it.
+        for (int k = active.size() - 1; k >= 0; k--) {
+            Card card = active.get(k);
+            int i = card.getIndex();
+            int r = i / cols;
+            int c = i % cols;
+            if (r < r0 || r > r1 || c < c0 || c > c1) {
+                active.set(k, active.get(active.size() - 1));
+                active.remove(active.size() - 1);
+                release(card);
+            }
+        }
+
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int i = r * cols + c;
+                if (i >= count) break;
+                Card card = bound[i];
+                if (card == null) card = bind(i);
+                card.resizeRelocate(PADDING + c * stride - sx, PADDING + r * stride - sy, cardSize, cardSize);
+            }
+        }
+    }
+
+    private Card bind(int i) {
+        Card card;
+        if (free.isEmpty()) {
+            card = new Card(i, faces[layout[i]], cardSize, game);
+            viewport.getChildren().add(card);
+        } else {
+            card = free.remove(free.size() - 1);
+            card.assign(i, faces[layout[i]], cardSize);
+            card.setVisible(true);
+        }
+        if (revealed[i] || matched[i]) card.showFace();
+        if (matched[i]) card.setMatched(true);
+        bound[i] = card;
+        active.add(card);
+        return card;
+    }
+
+    private void release(Card card) {
+        bound[card.getIndex()] = null;
+        card.setVisible(false);
+        free.add(card);
+    }
+
+    private void releaseAll() {
+        for (Card card : active) release(card);
+        active.clear();
+    }
+
+    private static int cell(double offset, double stride, int cells) {
+        return Math.max(0, Math.min(cells - 1, (int) Math.floor(offset / stride)));
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}